@@ -0,0 +1,235 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Micro-benchmarks for win detection and AI move selection over a small
+// corpus of positions, plus the server's match snapshot codec. Reports ns/op
+// and heap bytes allocated per op, and can save a baseline and fail when a
+// later run is slower than it.
+//
+// Every benchmark runs in fresh JVMs (--forks of them, averaged), so the JIT
+// profile one benchmark leaves behind cannot skew the next and the result
+// does not depend on the order they run in. This is still a hand-rolled
+// harness, not JMH: there is no blackhole beyond a volatile sink and no GC
+// profiler, so keep the regression tolerance well above the spread it
+// prints between forks.
+//
+//   java AIBenchmark [--forks 3] [--save baseline.txt] [--compare baseline.txt] [--tolerance 25]
+final class AIBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final long ROUND_NANOS = 100_000_000L;
+    private static final int BATCH = 256;
+    private static final String RESULT_PREFIX = "result ";
+
+    // Results are folded in here so the JIT cannot drop the measured work
+    private static volatile long sink;
+
+    private static final class Result {
+        final String name;
+        final double nanosPerOp, bytesPerOp, spread;
+
+        Result(String name, double nanosPerOp, double bytesPerOp, double spread) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.spread = spread;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path save = null, compare = null;
+        double tolerance = 25;
+        int forks = 3;
+        String single = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--forks": forks = Math.max(1, Integer.parseInt(args[++i])); break;
+                case "--save": save = Path.of(args[++i]); break;
+                case "--compare": compare = Path.of(args[++i]); break;
+                case "--tolerance": tolerance = Double.parseDouble(args[++i]); break;
+                case "--run": single = args[++i]; break;   // inside a fork
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Map<String, LongSupplier> benchmarks = benchmarks();
+        if (single != null) {
+            LongSupplier op = benchmarks.get(single);
+            if (op == null) {
+                System.err.println("Unknown benchmark: " + single);
+                System.exit(2);
+            }
+            Result result = measure(single, op);
+            System.out.printf(Locale.ROOT, "%s%s %f %f%n", RESULT_PREFIX, result.name, result.nanosPerOp, result.bytesPerOp);
+            return;
+        }
+
+        System.out.printf("%-36s %12s %12s %10s%n", "Benchmark", "ns/op", "bytes/op", "spread");
+        List<Result> results = new ArrayList<>();
+        for (String name : benchmarks.keySet()) {
+            Result result = fork(name, forks);
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-36s %12.1f %12.1f %9.0f%%%n",
+                result.name, result.nanosPerOp, result.bytesPerOp, result.spread);
+        }
+
+        if (save != null) {
+            List<String> lines = new ArrayList<>();
+            for (Result result : results) lines.add(result.name + " " + result.nanosPerOp);
+            Files.write(save, lines);
+            System.out.println("Baseline saved to " + save);
+        }
+        if (compare != null && !compareTo(compare, results, tolerance)) {
+            System.exit(1);
+        }
+    }
+
+    // Name -> operation, in report order. Built in every fork, but a fork
+    // only ever calls the one it was started for.
+    private static Map<String, LongSupplier> benchmarks() {
+        Map<String, GameEngine> corpus = new LinkedHashMap<>();
+        corpus.put("opening", new GameEngine(0, 0, true));
+        // X took a corner, O the center, X the opposite corner: O must not take a corner
+        corpus.put("fork-threat", new GameEngine(Board.bit(1) | Board.bit(9), Board.CENTER, false));
+        corpus.put("midgame", new GameEngine(Board.bit(1) | Board.bit(6), Board.bit(5) | Board.bit(3), true));
+
+        AIPlayer ai = new AIPlayer();
+        ai.setSearchThreads(1);
+        // MCTS would otherwise spend its whole 250 ms game budget per call
+        ai.setMonteCarloTimeMillis(1);
+        Map<String, LongSupplier> benchmarks = new LinkedHashMap<>();
+        for (Map.Entry<String, GameEngine> entry : corpus.entrySet()) {
+            String position = entry.getKey();
+            GameEngine engine = entry.getValue();
+            boolean oneToMove = engine.isPlayerOneToMove();
+            int mover = oneToMove ? engine.playerOne() : engine.playerTwo();
+            int opponent = oneToMove ? engine.playerTwo() : engine.playerOne();
+            int empty = engine.empty();
+
+            benchmarks.put("checkWinner/" + position,
+                () -> (Board.isWin(mover) ? 1 : 0) + (Board.isWin(opponent) ? 2 : 0));
+            benchmarks.put("getWinningMove/" + position, () -> Board.winningSquares(mover, empty));
+            benchmarks.put("createFork/" + position, () -> ai.createFork(mover, empty));
+            benchmarks.put("blockOpponentFork/" + position, () -> ai.blockOpponentFork(opponent, mover, empty));
+            benchmarks.put("heuristic/" + position, () -> ai.getUnbeatableMove(engine));
+            String[] names = {"easy", "medium", "hard", "search", "mcts"};
+            for (int difficulty = AIPlayer.EASY; difficulty <= AIPlayer.MCTS; difficulty++) {
+                int level = difficulty;
+                benchmarks.put("getAIMove-" + names[level - 1] + "/" + position, () -> ai.getAIMove(engine, level));
+            }
+        }
+
+        // Server-side state handling: snapshot codec and binary frames
+        MatchState match = new MatchState(3);
+        match.newMatch(3, true);
+        for (int pos : new int[] {1, 5, 9, 3}) match.applyMove(pos);
+        int packed = MatchCodec.encode(match, AIPlayer.HARD);
+        MatchState decoded = new MatchState(2);
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        benchmarks.put("MatchCodec.encode", () -> MatchCodec.encode(match, AIPlayer.HARD));
+        benchmarks.put("MatchCodec.decode", () -> MatchCodec.decode(packed, decoded) ? 1 : 0);
+        benchmarks.put("WireProtocol.state+move", () -> {
+            frame.clear();
+            WireProtocol.putState(frame, packed);
+            WireProtocol.put(frame, WireProtocol.MOVE, 7);
+            return WireProtocol.frameLength(frame, 0, frame.position());
+        });
+        return benchmarks;
+    }
+
+    // Runs one benchmark in fresh JVMs with this JVM's options and averages
+    // them; spread is the largest fork's distance from the mean, in percent
+    private static Result fork(String name, int forks) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path", "."));
+        command.add(AIBenchmark.class.getName());
+        command.add("--run");
+        command.add(name);
+
+        double[] nanos = new double[forks];
+        double bytes = 0, mean = 0;
+        for (int f = 0; f < forks; f++) {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            String result = null;
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                for (String line; (line = out.readLine()) != null; ) {
+                    if (line.startsWith(RESULT_PREFIX)) result = line;
+                }
+            }
+            if (process.waitFor() != 0 || result == null) {
+                throw new IOException("Benchmark fork for " + name + " failed");
+            }
+            String[] parts = result.split(" ");
+            nanos[f] = Double.parseDouble(parts[2]);
+            bytes += Double.parseDouble(parts[3]) / forks;
+            mean += nanos[f] / forks;
+        }
+        double spread = 0;
+        for (double n : nanos) spread = Math.max(spread, Math.abs(n - mean) / mean * 100);
+        return new Result(name, mean, bytes, spread);
+    }
+
+    private static Result measure(String name, LongSupplier op) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) runRound(op);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long ops = 0, nanos = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            long start = System.nanoTime();
+            ops += runRound(op);
+            nanos += System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(name, (double) nanos / ops, (double) allocated / ops, 0);
+    }
+
+    private static long runRound(LongSupplier op) {
+        long ops = 0, sum = 0;
+        long end = System.nanoTime() + ROUND_NANOS;
+        do {
+            for (int i = 0; i < BATCH; i++) sum += op.getAsLong();
+            ops += BATCH;
+        } while (System.nanoTime() < end);
+        sink += sum;
+        return ops;
+    }
+
+    private static boolean compareTo(Path baseline, List<Result> results, double tolerance) throws IOException {
+        Map<String, Double> previous = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(baseline)) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length == 2) previous.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        boolean ok = true;
+        for (Result result : results) {
+            Double before = previous.get(result.name);
+            if (before == null) continue;
+            double change = (result.nanosPerOp - before) / before * 100;
+            if (change > tolerance) {
+                System.out.printf(Locale.ROOT, "REGRESSION %s: %.1f -> %.1f ns/op (+%.0f%%)%n",
+                    result.name, before, result.nanosPerOp, change);
+                ok = false;
+            }
+        }
+        System.out.println(ok ? "No regressions beyond " + tolerance + "%" : "Benchmark regressions found");
+        return ok;
+    }
+}
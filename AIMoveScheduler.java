@@ -0,0 +1,86 @@
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Computes AI moves on a background thread and hands only the final move
+// back to the EDT. The "thinking" delay is a minimum display time measured
+// from the request, so slow searches no longer add it on top. Requests made
+// before cancel() are dropped instead of landing on a reset board, and a
+// search already running is aborted so the next move does not queue behind
+// it.
+final class AIMoveScheduler {
+    private static final Executor EDT = SwingUtilities::invokeLater;
+
+    // The AIPlayer is confined to this one thread, so it needs no locking
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-move");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AIPlayer ai;
+    private CompletableFuture<Void> pending;
+    private volatile long generation = 0;
+    // Written on the worker before the move is handed over, so the EDT sees
+    // the value that belongs to the move it was just given
+    private long computeNanos;
+
+    AIMoveScheduler(AIPlayer ai) {
+        this.ai = ai;
+    }
+
+    // Call on the EDT. The engine is copied here, so the UI may keep
+    // reading it while the move is computed.
+    void requestMove(GameEngine engine, int difficulty, long minDisplayMillis, IntConsumer onMove) {
+        cancel();
+        GameEngine snapshot = engine.copy();
+        long requested = System.nanoTime();
+        long ticket = generation;
+        pending = CompletableFuture
+            .supplyAsync(() -> {
+                // Cleared before the ticket is checked: a cancel() after this
+                // point aborts the search, one before it skips the search
+                ai.clearAbort();
+                if (ticket != generation) return -1;
+                long start = System.nanoTime();
+                int move = ai.getAIMove(snapshot, difficulty);
+                computeNanos = System.nanoTime() - start;
+                if (Metrics.ENABLED) Metrics.aiMove(difficulty, computeNanos);
+                return move;
+            }, worker)
+            .thenCompose(move -> {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requested);
+                long remaining = Math.max(0, minDisplayMillis - elapsed);
+                return CompletableFuture.supplyAsync(() -> move, CompletableFuture.delayedExecutor(remaining, TimeUnit.MILLISECONDS, EDT));
+            })
+            .thenAccept(move -> {
+                if (ticket == generation) onMove.accept(move);
+            })
+            .exceptionally(error -> {
+                System.err.println("AI move error: " + error.getMessage());
+                return null;
+            });
+    }
+
+    // Call on the EDT, e.g. when the board is reset or a new match starts
+    void cancel() {
+        generation++;
+        ai.abort();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    // Time getAIMove took for the most recently delivered move
+    long lastComputeNanos() {
+        return computeNanos;
+    }
+
+    boolean isThinking() {
+        return pending != null && !pending.isDone();
+    }
+}
@@ -0,0 +1,377 @@
+import java.util.Random;
+
+// Move selection for every difficulty. Reads the position only through a
+// GameEngine and always plays for the side to move, so it runs headless.
+final class AIPlayer {
+    static final int EASY = 1;
+    static final int MEDIUM = 2;
+    static final int HARD = 3;
+    static final int SEARCH = 4;
+    static final int MCTS = 5;
+
+    private final Random random;
+    private long searchTimeMillis = 250;
+    private int searchTableMegabytes = 1;
+    private TranspositionTable searchTable;
+    private int searchThreads = Runtime.getRuntime().availableProcessors();
+    private long monteCarloTimeMillis = 250;
+    private double monteCarloExploration = UctTree.DEFAULT_EXPLORATION;
+    // The searches abort() can reach from another thread
+    private volatile boolean aborted;
+    private volatile AlphaBetaSearch search;
+    private volatile ParallelSearch parallelSearch;
+    private volatile MonteCarloSearch monteCarlo;
+
+    AIPlayer() {
+        this(new Random());
+    }
+
+    AIPlayer(Random random) {
+        this.random = random;
+    }
+
+    private static int aiMask(GameEngine engine) {
+        return engine.isPlayerOneToMove() ? engine.playerOne() : engine.playerTwo();
+    }
+
+    private static int opponentMask(GameEngine engine) {
+        return engine.isPlayerOneToMove() ? engine.playerTwo() : engine.playerOne();
+    }
+
+    // Enhanced unbeatable AI strategy for hard mode
+    int getAIMove(GameEngine engine, int difficulty) {
+        switch (difficulty) {
+            case 1: // Easy: Random with occasional good moves
+                if (random.nextInt(10) < 3) { // 30% chance of smart move
+                    return getSmartMove(engine);
+                }
+                return getRandomMove(engine);
+
+            case 2: // Medium: Basic strategy
+                return getMediumMove(engine);
+
+            case 3: // Hard: Perfect play from the solved position table
+                return getPerfectMove(engine);
+
+            case 4: // Search: Alpha-beta within a time budget
+                return getSearchMove(engine);
+
+            case 5: // MCTS: Monte Carlo tree search within a time budget
+                return getMonteCarloMove(engine);
+
+            default:
+                return getRandomMove(engine);
+        }
+    }
+
+    int getRandomMove(GameEngine engine) {
+        int empty = engine.empty();
+        if (empty == 0) return 5;
+        // Pick the n-th free square without building a list
+        int n = random.nextInt(Integer.bitCount(empty));
+        while (n-- > 0) empty &= empty - 1;
+        return Board.firstSquare(empty);
+    }
+
+    int getSmartMove(GameEngine engine) {
+        int ai = aiMask(engine), opponent = opponentMask(engine), empty = engine.empty();
+        // Try to win
+        int winMoves = Board.winningSquares(ai, empty);
+        if (winMoves != 0) return Board.firstSquare(winMoves);
+        
+        // Block opponent
+        int blockMoves = Board.winningSquares(opponent, empty);
+        if (blockMoves != 0) return Board.firstSquare(blockMoves);
+        
+        return getRandomMove(engine);
+    }
+
+    int getMediumMove(GameEngine engine) {
+        int ai = aiMask(engine), opponent = opponentMask(engine), empty = engine.empty();
+        // 1. Win if possible
+        int winMoves = Board.winningSquares(ai, empty);
+        if (winMoves != 0) return Board.firstSquare(winMoves);
+        
+        // 2. Block opponent's win
+        int blockMoves = Board.winningSquares(opponent, empty);
+        if (blockMoves != 0) return Board.firstSquare(blockMoves);
+        
+        // 3. Take center if available
+        if ((empty & Board.CENTER) != 0) return 5;
+        
+        // 4. Take corner
+        if ((empty & Board.CORNERS) != 0) return Board.firstSquare(empty & Board.CORNERS);
+        
+        // 5. Take edge
+        if ((empty & Board.EDGES) != 0) return Board.firstSquare(empty & Board.EDGES);
+        
+        return getRandomMove(engine);
+    }
+
+    // Budget per Search move; deeper positions return the best move found so far
+    void setSearchTimeMillis(long searchTimeMillis) {
+        this.searchTimeMillis = searchTimeMillis;
+    }
+
+    // Memory cap for the Search transposition table, kept across moves
+    void setSearchTableMegabytes(int megabytes) {
+        searchTableMegabytes = megabytes;
+        searchTable = null;
+    }
+
+    // Callable from any thread: makes the Search or MCTS move in progress,
+    // and any started before clearAbort(), return its best move so far
+    void abort() {
+        aborted = true;
+        AlphaBetaSearch running = search;
+        if (running != null) running.abort();
+        ParallelSearch parallel = parallelSearch;
+        if (parallel != null) parallel.abort();
+        MonteCarloSearch tree = monteCarlo;
+        if (tree != null) tree.abort();
+    }
+
+    // Called by the thread computing moves before it starts a new one
+    void clearAbort() {
+        aborted = false;
+        if (parallelSearch != null) parallelSearch.clearAbort();
+        if (monteCarlo != null) monteCarlo.clearAbort();
+    }
+
+    // Threads for the Search difficulty; 1 searches on the calling thread
+    void setSearchThreads(int threads) {
+        searchThreads = Math.max(1, threads);
+        if (parallelSearch != null) parallelSearch.shutdown();
+        parallelSearch = null;
+    }
+
+    int getSearchMove(GameEngine engine) {
+        int cell = getSearchCell(MnkBoard.fromEngine(engine));
+        return cell != -1 ? cell + 1 : getRandomMove(engine);
+    }
+
+    // Search on a board of any shape. Positions in the book for that shape
+    // are answered without searching; the rest are searched with its exact
+    // entries as cutoffs. Returns a cell index, or -1 if the game is over.
+    int getSearchCell(MnkBoard board) {
+        PositionBook book = PositionBook.forShape(board.rows, board.cols, board.k);
+        if (book != null && book.covers(board)) {
+            long entry = book.probe(board.hash());
+            if (entry != PositionBook.MISS && PositionBook.move(entry) != -1) return PositionBook.move(entry);
+        }
+        if (searchTable == null) searchTable = new TranspositionTable(searchTableMegabytes);
+        if (searchThreads == 1) {
+            AlphaBetaSearch single = new AlphaBetaSearch(board, searchTable);
+            single.setBook(book);
+            // Published before the flag is read, so a racing abort() is never lost
+            search = single;
+            if (aborted) single.abort();
+            try {
+                return single.search(searchTimeMillis, board.size()).bestMove;
+            } finally {
+                search = null;
+            }
+        }
+        if (parallelSearch == null) {
+            parallelSearch = new ParallelSearch(searchThreads);
+            if (aborted) parallelSearch.abort();
+        }
+        parallelSearch.setBook(book);
+        return parallelSearch.search(board, searchTable, searchTimeMillis, board.size()).bestMove;
+    }
+
+    // Budget per MCTS move
+    void setMonteCarloTimeMillis(long monteCarloTimeMillis) {
+        this.monteCarloTimeMillis = monteCarloTimeMillis;
+    }
+
+    // UCT exploration constant for MCTS: higher spreads playouts over more
+    // moves, lower digs into the best ones. Starts a new tree.
+    void setMonteCarloExploration(double exploration) {
+        monteCarloExploration = exploration;
+        monteCarlo = null;
+    }
+
+    // The tree is kept from move to move, so a reply to our last move starts
+    // from what was already searched below it
+    int getMonteCarloMove(GameEngine engine) {
+        if (monteCarlo == null) {
+            monteCarlo = new MonteCarloSearch(1 << 18, monteCarloExploration, random.nextLong());
+            if (aborted) monteCarlo.abort();
+        }
+        int cell = monteCarlo.search(MnkBoard.fromEngine(engine), monteCarloTimeMillis).bestMove;
+        return cell != -1 ? cell + 1 : getRandomMove(engine);
+    }
+
+    int getPerfectMove(GameEngine engine) {
+        int move = PerfectPlayTable.instance().bestMove(engine);
+        return move != -1 ? move : getUnbeatableMove(engine);
+    }
+
+    // Rule-based minimax-inspired strategy, kept as a fast reference player
+    // for comparing against the solved table
+    int getUnbeatableMove(GameEngine engine) {
+        int ai = aiMask(engine), opponent = opponentMask(engine), empty = engine.empty();
+
+        // STRATEGY 1: Win immediately if possible (highest priority)
+        int winMoves = Board.winningSquares(ai, empty);
+        if (winMoves != 0) {
+            return chose(1, Board.firstSquare(winMoves));
+        }
+        
+        // STRATEGY 2: Block opponent's immediate win (second priority)
+        int blockMoves = Board.winningSquares(opponent, empty);
+        if (blockMoves != 0) {
+            return chose(2, Board.firstSquare(blockMoves));
+        }
+        
+        // STRATEGY 3: Create a fork (two ways to win simultaneously)
+        int forkMove = createFork(ai, empty);
+        if (forkMove != -1) return chose(3, forkMove);
+        
+        // STRATEGY 4: Block opponent's potential forks
+        int blockFork = blockOpponentFork(opponent, ai, empty);
+        if (blockFork != -1) return chose(4, blockFork);
+        
+        // STRATEGY 5: Opening move optimization (first move)
+        if (ai == 0 && opponent == 0) {
+            // Always start with corner for maximum winning potential
+            return chose(5, 1); // Top-left corner
+        }
+        
+        // STRATEGY 6: Second move as AI (respond to opponent's first move)
+        if (ai == 0 && Integer.bitCount(opponent) == 1) {
+            if (opponent == Board.CENTER) {
+                // Opponent took center, take any corner
+                return chose(6, Board.firstSquare(Board.CORNERS));
+            } else {
+                // Opponent took corner or edge, take center
+                if ((empty & Board.CENTER) != 0) return chose(6, 5);
+                // If center taken, take opposite corner
+                return chose(6, getOppositeCorner(opponent, empty));
+            }
+        }
+        
+        // STRATEGY 7: Advanced positional play
+        // If we have center and opponent has corner, take adjacent edge to create threats
+        if ((ai & Board.CENTER) != 0 && (opponent & Board.CORNERS) != 0) {
+            for (int edges = empty & Board.EDGES; edges != 0; edges &= edges - 1) {
+                int edge = Board.firstSquare(edges);
+                if (createsMultipleThreats(ai, edge, empty)) return chose(7, edge);
+            }
+        }
+        
+        // STRATEGY 8: Take center if available and strategic
+        if ((empty & Board.CENTER) != 0) {
+            // Center is always good if available
+            return chose(8, 5);
+        }
+        
+        // STRATEGY 9: Opposite corner strategy
+        int oppositeCorner = getOppositeCorner(opponent, empty);
+        if (oppositeCorner != -1) return chose(9, oppositeCorner);
+        
+        // STRATEGY 10: Any empty corner (corners are strong positions)
+        if ((empty & Board.CORNERS) != 0) return chose(10, Board.firstSquare(empty & Board.CORNERS));
+        
+        // STRATEGY 11: Take edges that don't give opponent fork opportunities
+        for (int edges = empty & Board.EDGES; edges != 0; edges &= edges - 1) {
+            int edge = Board.firstSquare(edges);
+            // Make sure this edge doesn't give opponent a fork
+            if (!givesOpponentFork(opponent, edge, empty)) return chose(11, edge);
+        }
+        
+        // STRATEGY 12: Fallback - any available move
+        if (empty != 0) return chose(12, Board.firstSquare(empty));
+        
+        return chose(12, 5); // Ultimate fallback
+    }
+    
+    // Reports the strategy that picked the move to metrics and JFR
+    private static int chose(int strategy, int move) {
+        if (Metrics.ENABLED) Metrics.strategy(strategy);
+        if (GameEvents.recorderStarted()) {
+            GameEvents.Strategy event = new GameEvents.Strategy();
+            if (event.shouldCommit()) {
+                event.strategy = strategy;
+                event.name = GameEvents.STRATEGIES[strategy];
+                event.square = move;
+                event.commit();
+            }
+        }
+        return move;
+    }
+
+    // Check if a move creates multiple threats
+    private boolean createsMultipleThreats(int ai, int move, int empty) {
+        int bit = Board.bit(move);
+        return Board.threatCount(ai | bit, empty & ~bit) >= 2;
+    }
+    
+    // Check if a move gives opponent a fork opportunity
+    private boolean givesOpponentFork(int opponent, int move, int empty) {
+        // Simulate the move
+        int afterMove = empty & ~Board.bit(move);
+        
+        // Check if opponent can create fork after this move
+        for (int rest = afterMove; rest != 0; rest &= rest - 1) {
+            int bit = rest & -rest;
+            if (createFork(opponent | bit, afterMove & ~bit) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Enhanced fork creation - find moves that create two winning lines
+    int createFork(int player, int empty) {
+        for (int rest = empty; rest != 0; rest &= rest - 1) {
+            int bit = rest & -rest;
+            // If we can create 2+ winning opportunities, it's a fork
+            if (Board.threatCount(player | bit, empty & ~bit) >= 2) {
+                return Board.firstSquare(bit);
+            }
+        }
+        return -1;
+    }
+    
+    // Block opponent's fork attempts
+    int blockOpponentFork(int opponent, int ai, int empty) {
+        // Find all opponent moves that would create forks
+        int forkThreats = 0;
+        for (int rest = empty; rest != 0; rest &= rest - 1) {
+            int bit = rest & -rest;
+            if (Board.threatCount(opponent | bit, empty & ~bit) >= 2) {
+                forkThreats |= bit;
+            }
+        }
+        
+        // If opponent has fork threats, we need to block them
+        if (forkThreats != 0) {
+            // Try to block by creating our own threat (forcing opponent to defend)
+            for (int rest = empty & ~forkThreats; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (Board.winningSquares(ai | bit, empty & ~bit) != 0) {
+                    return Board.firstSquare(bit); // This forces opponent to block us instead of forking
+                }
+            }
+            
+            // If we can't create counter-threat, directly block the fork
+            return Board.firstSquare(forkThreats);
+        }
+        
+        return -1;
+    }
+
+    private int getOppositeCorner(int opponent, int empty) {
+        // If opponent has a corner, take the opposite
+        int[][] opposites = {{1, 9}, {3, 7}, {7, 3}, {9, 1}};
+        
+        for (int[] pair : opposites) {
+            if ((opponent & Board.bit(pair[0])) != 0 && (empty & Board.bit(pair[1])) != 0) {
+                return pair[1];
+            }
+        }
+        return -1;
+    }
+}
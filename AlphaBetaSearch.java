@@ -0,0 +1,333 @@
+// Negamax alpha-beta search over an MnkBoard with iterative deepening and a
+// wall-clock budget. Moves are ordered threat-first (wins and blocks come out
+// of the window evaluation delta), then killers, then history, so cutoffs
+// come early even on boards where a full search is out of reach.
+final class AlphaBetaSearch {
+    static final int WIN = 1_000_000;
+    static final int WIN_BOUND = WIN - 10_000;
+    // Ordering tiers: table move, completing a line, blocking one, then killers
+    private static final int TT_MOVE = 1 << 29, WIN_MOVE = 1 << 28, BLOCK_MOVE = 1 << 27, KILLER_MOVE = 1 << 26;
+    private static final int TIME_CHECK_MASK = 2047;
+    // Candidate moves are empty cells within this distance of a stone
+    private static final int NEIGHBOURHOOD = 2;
+
+    // Outcome of one search call; bestMove is a cell index
+    static final class Result {
+        final int bestMove, score, depth;
+        final long nodes, tableHits;
+
+        Result(int bestMove, int score, int depth, long nodes, long tableHits) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.tableHits = tableHits;
+        }
+    }
+
+    private final MnkBoard board;
+    private final TranspositionTable table;   // null searches without memoization
+    private PositionBook book;                // solved entries cut off like exact table hits
+    private final int[] weights;          // value of a window holding n stones of one side only
+    private final int[][] moveBuffers;    // [ply][moves]
+    private final int[][] scoreBuffers;   // [ply][ordering score]
+    private final int[][] killers;        // [ply][2]
+    private final int[] history;          // [cell]
+    private final boolean[] candidate;
+    private int eval;                     // running window score from player one's view
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean aborted;
+    private int helper;                   // Lazy SMP helper index, 0 for the main searcher
+    private long nodes, tableHits;
+
+    AlphaBetaSearch(MnkBoard board) {
+        this(board, null);
+    }
+
+    AlphaBetaSearch(MnkBoard board, TranspositionTable table) {
+        this.board = board;
+        this.table = table;
+        int size = board.size();
+        weights = new int[board.k + 1];
+        for (int n = 1; n < board.k; n++) {
+            weights[n] = Math.min(1 << Math.min(30, 3 * (n - 1)), WIN / 100);
+        }
+        // A completed line dwarfs any count of open lines, so wins order first
+        weights[board.k] = WIN / 10;
+        moveBuffers = new int[size + 1][size];
+        scoreBuffers = new int[size + 1][size];
+        killers = new int[size + 1][2];
+        history = new int[size];
+        candidate = new boolean[size];
+    }
+
+    // Asks a running search to return at its next time check with the best
+    // move so far; used by ParallelSearch to release helpers once the main
+    // searcher is done, and by AIPlayer when a move is no longer wanted
+    void abort() {
+        aborted = true;
+    }
+
+    // Helpers start at staggered depths and rotate the root move order so
+    // parallel searchers fill the shared table with different subtrees
+    void setHelper(int index) {
+        helper = index;
+    }
+
+    // Exact book entries end the search at that node; book hits are counted
+    // with the table hits
+    void setBook(PositionBook book) {
+        this.book = book;
+    }
+
+    // Deepens until maxDepth, a proven result, or timeMillis runs out, and
+    // returns the best move from the deepest completed iteration
+    Result search(long timeMillis, int maxDepth) {
+        deadline = System.nanoTime() + timeMillis * 1_000_000L;
+        stopped = false;
+        nodes = 0;
+        tableHits = 0;
+        eval = staticScore();
+        for (int[] killer : killers) java.util.Arrays.fill(killer, -1);
+        java.util.Arrays.fill(history, 0);
+
+        int[] rootMoves = moveBuffers[0];
+        int count = generateMoves(rootMoves, scoreBuffers[0], 0);
+        if (count == 0) return new Result(-1, 0, 0, 0, 0);
+        sortMoves(rootMoves, scoreBuffers[0], count);
+        if (helper > 0 && count > 1) rotate(rootMoves, helper % count, count);
+
+        int bestMove = rootMoves[0], bestScore = 0, completedDepth = 0;
+        int empties = board.size() - board.moveCount();
+        int limit = Math.min(maxDepth, empties);
+        for (int depth = 1 + (helper & 1); depth <= limit && !aborted; depth++) {
+            // Age history so later iterations are not drowned out by early ones
+            for (int cell = 0; cell < history.length; cell++) history[cell] >>= 1;
+            int alpha = -WIN - 1, iterationBest = -1;
+            for (int i = 0; i < count; i++) {
+                int move = rootMoves[i];
+                int score = -childSearch(move, depth - 1, 1, -WIN - 1, -alpha);
+                if (stopped) break;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = i;
+                }
+            }
+            if (stopped) break;
+            // Search the new best move first on the next iteration
+            int best = rootMoves[iterationBest];
+            System.arraycopy(rootMoves, 0, rootMoves, 1, iterationBest);
+            rootMoves[0] = best;
+            bestMove = best;
+            bestScore = alpha;
+            completedDepth = depth;
+            if (Math.abs(alpha) >= WIN_BOUND) break;
+        }
+        return new Result(bestMove, bestScore, completedDepth, nodes, tableHits);
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    long tableHits() {
+        return tableHits;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & TIME_CHECK_MASK) == 0 && (aborted || System.nanoTime() > deadline)) stopped = true;
+        if (stopped) return 0;
+        // The previous mover just completed a line
+        if (board.winner() != MnkBoard.NO_WINNER) return -(WIN - ply);
+        if (board.isFull()) return 0;
+        if (book != null && book.covers(board)) {
+            long entry = book.probe(board.hash());
+            if (entry != PositionBook.MISS && PositionBook.isExact(entry)) {
+                tableHits++;
+                return fromTable(PositionBook.score(entry), ply);
+            }
+        }
+        if (depth == 0) {
+            int score = Math.max(-WIN_BOUND + 1, Math.min(WIN_BOUND - 1, eval));
+            return board.sideToMove() == MnkBoard.PLAYER_ONE ? score : -score;
+        }
+
+        int originalAlpha = alpha;
+        int tableMove = -1;
+        if (table != null) {
+            long entry = table.probe(board.hash());
+            if (entry != TranspositionTable.MISS) {
+                tableHits++;
+                tableMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT) return score;
+                    if (flag == TranspositionTable.LOWER && score > alpha) alpha = score;
+                    else if (flag == TranspositionTable.UPPER && score < beta) beta = score;
+                    if (alpha >= beta) return score;
+                }
+            }
+        }
+
+        int[] moves = moveBuffers[ply], scores = scoreBuffers[ply];
+        int count = generateMoves(moves, scores, ply);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == tableMove) scores[i] += TT_MOVE;
+        }
+        int best = -WIN - 1, bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            pickNext(moves, scores, i, count);
+            int move = moves[i];
+            int score = -childSearch(move, depth - 1, ply + 1, -beta, -alpha);
+            if (stopped) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                if (killers[ply][0] != move) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = move;
+                }
+                history[move] += depth * depth;
+                break;
+            }
+        }
+        if (table != null) {
+            int flag = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(board.hash(), depth, flag, toTable(best, ply), bestMove);
+        }
+        return best;
+    }
+
+    // Win/loss scores count plies from the root; the table stores them
+    // relative to the node so they stay valid when reached at another ply
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_BOUND) return score + ply;
+        if (score <= -WIN_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_BOUND) return score - ply;
+        if (score <= -WIN_BOUND) return score + ply;
+        return score;
+    }
+
+    private int childSearch(int move, int depth, int ply, int alpha, int beta) {
+        int delta = delta(move, board.sideToMove());
+        eval += delta;
+        board.make(move);
+        int score = negamax(depth, ply, alpha, beta);
+        board.unmake();
+        eval -= delta;
+        return score;
+    }
+
+    // Change in the window score (player one's view) if player plays cell
+    private int delta(int cell, int player) {
+        int change = 0;
+        int other = MnkBoard.PLAYER_ONE + MnkBoard.PLAYER_TWO - player;
+        for (int w : board.windowsThrough(cell)) {
+            int own = board.stonesInWindow(player, w), opp = board.stonesInWindow(other, w);
+            if (opp == 0) change += weights[own + 1] - weights[own];
+            else if (own == 0) change += weights[opp];
+        }
+        return player == MnkBoard.PLAYER_ONE ? change : -change;
+    }
+
+    private int generateMoves(int[] moves, int[] scores, int ply) {
+        int count = 0;
+        int player = board.sideToMove();
+        int other = MnkBoard.PLAYER_ONE + MnkBoard.PLAYER_TWO - player;
+        if (board.moveCount() == 0) {
+            moves[0] = (board.rows / 2) * board.cols + board.cols / 2;
+            scores[0] = 0;
+            return 1;
+        }
+        markCandidates();
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (!candidate[cell]) continue;
+            int score = 0;
+            boolean wins = false, blocks = false;
+            for (int w : board.windowsThrough(cell)) {
+                int own = board.stonesInWindow(player, w), opp = board.stonesInWindow(other, w);
+                if (opp == 0) {
+                    score += weights[own + 1] - weights[own];
+                    wins |= own == board.k - 1;
+                } else if (own == 0) {
+                    score += weights[opp];
+                    blocks |= opp == board.k - 1;
+                }
+            }
+            if (wins) score += WIN_MOVE;
+            else if (blocks) score += BLOCK_MOVE;
+            else if (cell == killers[ply][0] || cell == killers[ply][1]) score += KILLER_MOVE;
+            moves[count] = cell;
+            scores[count++] = score + Math.min(history[cell], KILLER_MOVE - 1);
+        }
+        return count;
+    }
+
+    private void markCandidates() {
+        java.util.Arrays.fill(candidate, false);
+        boolean marked = false;
+        int rows = board.rows, cols = board.cols;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (board.isEmpty(cell)) continue;
+            int row = cell / cols, col = cell % cols;
+            for (int r = Math.max(0, row - NEIGHBOURHOOD); r <= Math.min(rows - 1, row + NEIGHBOURHOOD); r++) {
+                for (int c = Math.max(0, col - NEIGHBOURHOOD); c <= Math.min(cols - 1, col + NEIGHBOURHOOD); c++) {
+                    if (board.isEmpty(r * cols + c)) {
+                        candidate[r * cols + c] = true;
+                        marked = true;
+                    }
+                }
+            }
+        }
+        // Every neighbourhood is full - fall back to all empty cells
+        if (!marked) {
+            for (int cell = 0; cell < board.size(); cell++) candidate[cell] = board.isEmpty(cell);
+        }
+    }
+
+    // Selection step: moves the best remaining move into slot i
+    private static void pickNext(int[] moves, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) best = j;
+        }
+        if (best != i) {
+            int move = moves[i], score = scores[i];
+            moves[i] = moves[best];
+            scores[i] = scores[best];
+            moves[best] = move;
+            scores[best] = score;
+        }
+    }
+
+    private static void rotate(int[] moves, int by, int count) {
+        int[] rotated = new int[count];
+        for (int i = 0; i < count; i++) rotated[i] = moves[(i + by) % count];
+        System.arraycopy(rotated, 0, moves, 0, count);
+    }
+
+    private static void sortMoves(int[] moves, int[] scores, int count) {
+        for (int i = 0; i < count; i++) pickNext(moves, scores, i, count);
+    }
+
+    private int staticScore() {
+        int score = 0;
+        for (int w = 0; w < board.windowCount(); w++) {
+            int one = board.stonesInWindow(MnkBoard.PLAYER_ONE, w);
+            int two = board.stonesInWindow(MnkBoard.PLAYER_TWO, w);
+            if (two == 0) score += weights[one];
+            else if (one == 0) score -= weights[two];
+        }
+        return score;
+    }
+}
@@ -0,0 +1,91 @@
+// Primitive 3x3 board: one 9-bit mask per player plus side to move.
+// Square pos (1-9) lives in bit (pos - 1), so every rule check is a table
+// lookup or a couple of AND/compare ops with no allocation.
+final class Board {
+    static final int SQUARES = 9;
+    static final int ALL = 0x1FF;
+    static final int CENTER = bit(5);
+    static final int CORNERS = bit(1) | bit(3) | bit(7) | bit(9);
+    static final int EDGES = bit(2) | bit(4) | bit(6) | bit(8);
+
+    // Rows, columns, diagonals - same order as the old winningCombos literal
+    static final int[] WIN_LINES = {
+        bit(1) | bit(2) | bit(3), bit(4) | bit(5) | bit(6), bit(7) | bit(8) | bit(9),
+        bit(1) | bit(4) | bit(7), bit(2) | bit(5) | bit(8), bit(3) | bit(6) | bit(9),
+        bit(1) | bit(5) | bit(9), bit(3) | bit(5) | bit(7)
+    };
+
+    // Indexed by a player's mask: does it contain a line, and which squares
+    // would complete a line (ignoring whether they are free)
+    private static final boolean[] WINS = new boolean[ALL + 1];
+    private static final int[] COMPLETIONS = new int[ALL + 1];
+
+    static {
+        for (int mask = 0; mask <= ALL; mask++) {
+            for (int line : WIN_LINES) {
+                if ((mask & line) == line) WINS[mask] = true;
+                int missing = line & ~mask;
+                if (Integer.bitCount(missing) == 1) COMPLETIONS[mask] |= missing;
+            }
+        }
+    }
+
+    int playerOne, playerTwo;
+    boolean playerOneToMove = true;
+
+    static int bit(int pos) {
+        return 1 << (pos - 1);
+    }
+
+    // Lowest square (1-9) in the mask, or -1 when the mask is empty
+    static int firstSquare(int mask) {
+        return mask == 0 ? -1 : Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    static boolean isWin(int mask) {
+        return WINS[mask];
+    }
+
+    // Free squares that would give the owner of mask an immediate win
+    static int winningSquares(int mask, int empty) {
+        return COMPLETIONS[mask] & empty;
+    }
+
+    static int threatCount(int mask, int empty) {
+        return Integer.bitCount(COMPLETIONS[mask] & empty);
+    }
+
+    int empty() {
+        return ALL & ~(playerOne | playerTwo);
+    }
+
+    boolean isEmpty(int pos) {
+        return ((playerOne | playerTwo) & bit(pos)) == 0;
+    }
+
+    int moveCount() {
+        return Integer.bitCount(playerOne | playerTwo);
+    }
+
+    boolean isFull() {
+        return (playerOne | playerTwo) == ALL;
+    }
+
+    void place(int pos, boolean isPlayerOne) {
+        if (isPlayerOne) playerOne |= bit(pos);
+        else playerTwo |= bit(pos);
+        playerOneToMove = !isPlayerOne;
+    }
+
+    void remove(int pos, boolean isPlayerOne) {
+        if (isPlayerOne) playerOne &= ~bit(pos);
+        else playerTwo &= ~bit(pos);
+        playerOneToMove = isPlayerOne;
+    }
+
+    void clear(boolean playerOneFirst) {
+        playerOne = 0;
+        playerTwo = 0;
+        playerOneToMove = playerOneFirst;
+    }
+}
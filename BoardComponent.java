@@ -0,0 +1,330 @@
+import javax.swing.JComponent;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+// One painted component for a whole rows x cols board, in place of a JButton
+// per cell. Colors and fonts are constants, the X and O glyphs are rendered
+// once per cell size into images, a cell change repaints only that cell's
+// rectangle, and a click or hover finds its cell by division - so a 19x19
+// board costs no more layout than a 3x3 one.
+//
+// Cells are indexed row by row from 0. The component only displays marks;
+// the caller decides what a click means. setBlocks splits the grid into
+// blocks with wider gaps between them, e.g. the nine boards of Ultimate,
+// and a block can carry one big mark of its own drawn over its cells.
+@SuppressWarnings("serial")
+final class BoardComponent extends JComponent {
+    static final int EMPTY = 0, X = 1, O = 2;
+
+    private static final Color BACKGROUND = new Color(247, 250, 252);
+    private static final Color CELL = Color.WHITE;
+    private static final Color CELL_HOVER = new Color(237, 242, 247);
+    private static final Color CELL_PLAYABLE = new Color(230, 250, 236);
+    private static final Color CELL_BORDER = new Color(226, 232, 240);
+    private static final Color X_MARK = new Color(245, 101, 101);
+    private static final Color X_CELL = new Color(254, 242, 242);
+    private static final Color O_MARK = new Color(66, 153, 225);
+    private static final Color O_CELL = new Color(239, 246, 255);
+    private static final Font MARK_FONT = new Font("Segoe UI", Font.BOLD, 48);
+    private static final Cursor HAND = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+    private static final int MAX_GAP = 8;
+    private static final int BORDER_WIDTH = 2;
+    private static final float BLOCK_MARK_ALPHA = 0.75f;
+
+    private final int rows, cols;
+    private final byte[] cells;
+    private IntConsumer onClick = index -> { };
+    private IntPredicate playable = index -> true;
+    private int hover = -1;
+    private boolean highlightPlayable;
+    private int blockRows, blockCols;
+    private byte[] blockMarks = new byte[1];
+
+    // Geometry of the last layout, recomputed only when the size changes
+    private int layoutWidth = -1, layoutHeight = -1;
+    private int originX, originY, cellSize, gap, blockGap;
+    private BufferedImage xGlyph, oGlyph, xBlockGlyph, oBlockGlyph;
+
+    BoardComponent(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        cells = new byte[rows * cols];
+        blockRows = rows;
+        blockCols = cols;
+        setOpaque(true);
+        setBackground(BACKGROUND);
+        setPreferredSize(new Dimension(Math.max(300, cols * 40), Math.max(300, rows * 40)));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = cellAt(e.getX(), e.getY());
+                if (index != -1 && isEnabled()) onClick.accept(index);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int cols() {
+        return cols;
+    }
+
+    void setOnClick(IntConsumer onClick) {
+        this.onClick = onClick;
+    }
+
+    // Cells that light up under the mouse and show the hand cursor
+    void setPlayable(IntPredicate playable) {
+        this.playable = playable;
+    }
+
+    // Repaints the cell only if its mark changed
+    void setCell(int index, int mark) {
+        if (cells[index] == mark) return;
+        cells[index] = (byte) mark;
+        if (index == hover) updateCursor();
+        repaintCell(index);
+    }
+
+    int cell(int index) {
+        return cells[index];
+    }
+
+    // Blocks of blockRows x blockCols cells, which must divide the grid
+    void setBlocks(int blockRows, int blockCols) {
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+        blockMarks = new byte[rows / blockRows * (cols / blockCols)];
+        layoutWidth = -1;
+        repaint();
+    }
+
+    // Blocks are indexed row by row like cells; EMPTY removes the mark
+    void setBlockMark(int block, int mark) {
+        if (blockMarks[block] == mark) return;
+        blockMarks[block] = (byte) mark;
+        Rectangle bounds = blockBounds(block);
+        repaint(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    // Tints the empty cells the predicate allows, so it is clear where the
+    // next move may go; call repaint() after the predicate's answer changes
+    void setHighlightPlayable(boolean highlightPlayable) {
+        this.highlightPlayable = highlightPlayable;
+        repaint();
+    }
+
+    void clear() {
+        for (int i = 0; i < cells.length; i++) setCell(i, EMPTY);
+        for (int i = 0; i < blockMarks.length; i++) setBlockMark(i, EMPTY);
+    }
+
+    // Cell under the point, or -1 for the gaps and the margin
+    int cellAt(int x, int y) {
+        computeLayout();
+        if (cellSize <= 0) return -1;
+        int col = lineAt(x - originX, blockCols), row = lineAt(y - originY, blockRows);
+        if (col == -1 || row == -1 || col >= cols || row >= rows) return -1;
+        return row * cols + col;
+    }
+
+    Rectangle cellBounds(int index) {
+        computeLayout();
+        return new Rectangle(cellX(index % cols), cellY(index / cols), cellSize, cellSize);
+    }
+
+    Rectangle blockBounds(int block) {
+        computeLayout();
+        int blocksAcross = cols / blockCols;
+        int col = block % blocksAcross * blockCols, row = block / blocksAcross * blockRows;
+        int stride = cellSize + gap;
+        return new Rectangle(cellX(col), cellY(row), blockCols * stride - gap, blockRows * stride - gap);
+    }
+
+    private int cellX(int col) {
+        return originX + col * (cellSize + gap) + col / blockCols * blockGap;
+    }
+
+    private int cellY(int row) {
+        return originY + row * (cellSize + gap) + row / blockRows * blockGap;
+    }
+
+    // Column (or row) whose cell covers offset, -1 for a gap or before the grid
+    private int lineAt(int offset, int perBlock) {
+        int stride = cellSize + gap;
+        if (offset < 0) return -1;
+        int blockSpan = perBlock * stride + blockGap;
+        int within = offset % blockSpan;
+        if (within >= perBlock * stride || within % stride >= cellSize) return -1;
+        return offset / blockSpan * perBlock + within / stride;
+    }
+
+    // Column (or row) of the last cell starting at or before offset, for clipping
+    private int lineFloor(int offset, int perBlock, int count) {
+        if (offset < 0) return 0;
+        int stride = cellSize + gap, blockSpan = perBlock * stride + blockGap;
+        int line = offset / blockSpan * perBlock + Math.min(perBlock - 1, offset % blockSpan / stride);
+        return Math.min(count - 1, line);
+    }
+
+    private void setHover(int index) {
+        if (index == hover) return;
+        int previous = hover;
+        hover = index;
+        if (previous != -1) repaintCell(previous);
+        if (index != -1) repaintCell(index);
+        updateCursor();
+    }
+
+    private boolean isHoverable(int index) {
+        return index != -1 && isPlayable(index);
+    }
+
+    private boolean isPlayable(int index) {
+        return isEnabled() && cells[index] == EMPTY && playable.test(index);
+    }
+
+    private void updateCursor() {
+        setCursor(isHoverable(hover) ? HAND : null);
+    }
+
+    private void repaintCell(int index) {
+        Rectangle bounds = cellBounds(index);
+        repaint(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    private void computeLayout() {
+        int width = getWidth(), height = getHeight();
+        if (width == layoutWidth && height == layoutHeight) return;
+        layoutWidth = width;
+        layoutHeight = height;
+        Insets insets = getInsets();
+        int innerWidth = width - insets.left - insets.right, innerHeight = height - insets.top - insets.bottom;
+        int extraCols = cols / blockCols - 1, extraRows = rows / blockRows - 1;
+        int span = Math.max(0, Math.min(innerWidth / cols, innerHeight / rows));
+        // Block gaps are twice the cell gap on top of it, taken out of the cells
+        blockGap = extraCols + extraRows > 0 ? 2 * Math.min(MAX_GAP, span / 10) : 0;
+        span = Math.max(0, Math.min((innerWidth - extraCols * blockGap) / cols, (innerHeight - extraRows * blockGap) / rows));
+        // Gaps shrink with the cells so big boards keep most of the space for marks
+        gap = Math.min(MAX_GAP, span / 10);
+        cellSize = Math.max(0, span - gap);
+        int stride = cellSize + gap;
+        int boardWidth = cols * stride - gap + extraCols * blockGap, boardHeight = rows * stride - gap + extraRows * blockGap;
+        originX = insets.left + (innerWidth - boardWidth) / 2;
+        originY = insets.top + (innerHeight - boardHeight) / 2;
+        xGlyph = null;
+        oGlyph = null;
+        xBlockGlyph = null;
+        oBlockGlyph = null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        computeLayout();
+        Graphics2D g = (Graphics2D) graphics;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (cellSize <= 0) return;
+        if (xGlyph == null) {
+            xGlyph = glyph("X", X_MARK, cellSize, 0.6f);
+            oGlyph = glyph("O", O_MARK, cellSize, 0.6f);
+        }
+
+        // Only the cells under the clip, so a one-cell repaint paints one cell
+        int firstCol = lineFloor(clip.x - originX, blockCols, cols), lastCol = lineFloor(clip.x + clip.width - originX, blockCols, cols);
+        int firstRow = lineFloor(clip.y - originY, blockRows, rows), lastRow = lineFloor(clip.y + clip.height - originY, blockRows, rows);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                paintCell(g, row * cols + col, cellX(col), cellY(row));
+            }
+        }
+        if (blockMarks.length > 1) paintBlockMarks(g, clip);
+    }
+
+    private void paintBlockMarks(Graphics2D g, Rectangle clip) {
+        for (int block = 0; block < blockMarks.length; block++) {
+            int mark = blockMarks[block];
+            if (mark == EMPTY) continue;
+            Rectangle bounds = blockBounds(block);
+            if (!bounds.intersects(clip)) continue;
+            if (xBlockGlyph == null) {
+                xBlockGlyph = glyph("X", X_MARK, bounds.width, 0.9f);
+                oBlockGlyph = glyph("O", O_MARK, bounds.width, 0.9f);
+            }
+            Composite composite = g.getComposite();
+            g.setComposite(AlphaComposite.SrcOver.derive(BLOCK_MARK_ALPHA));
+            g.drawImage(mark == X ? xBlockGlyph : oBlockGlyph, bounds.x, bounds.y, null);
+            g.setComposite(composite);
+        }
+    }
+
+    private void paintCell(Graphics2D g, int index, int x, int y) {
+        int mark = cells[index];
+        g.setColor(mark == X ? X_CELL : mark == O ? O_CELL : index == hover && isHoverable(index) ? CELL_HOVER
+            : highlightPlayable && isPlayable(index) ? CELL_PLAYABLE : CELL);
+        g.fillRect(x, y, cellSize, cellSize);
+        g.setColor(CELL_BORDER);
+        int border = Math.min(BORDER_WIDTH, cellSize / 2);
+        g.fillRect(x, y, cellSize, border);
+        g.fillRect(x, y + cellSize - border, cellSize, border);
+        g.fillRect(x, y, border, cellSize);
+        g.fillRect(x + cellSize - border, y, border, cellSize);
+        if (mark != EMPTY) g.drawImage(mark == X ? xGlyph : oGlyph, x, y, null);
+    }
+
+    // The mark drawn once at the given size, centered on a transparent tile
+    private BufferedImage glyph(String mark, Color color, int size, float scale) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+            ? config.createCompatibleImage(size, size, Transparency.TRANSLUCENT)
+            : new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            // A scale of 0.6 is the 48pt mark of an 80px button
+            g.setFont(MARK_FONT.deriveFont(Math.max(6f, size * scale)));
+            g.setColor(color);
+            FontMetrics metrics = g.getFontMetrics();
+            int x = (size - metrics.stringWidth(mark)) / 2;
+            int y = (size - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(mark, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,215 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// The AI over local HTTP, on the JDK's built-in server. POST one position
+// per line and get one "<move> <score>" line back per position:
+//
+//   curl --data-binary $'X...O....\nXX..O..O. O' 'localhost:8080/move?difficulty=hard'
+//
+// A position is nine characters from X, O and '.', squares 1-9 row by row,
+// optionally followed by the side to move (X if omitted and counts are
+// equal). The move is 1-9, or 0 once the round is over; the score is the
+// solved value for the side to move (positive wins, negative loses, 0 draws,
+// larger when the result comes sooner). Bad lines answer "error <reason>".
+//
+// A batch is deduplicated before any AI runs, and deterministic answers are
+// kept in a cache shared by all requests, so one call with 10k positions
+// costs a few hundred distinct evaluations at most. Easy and MCTS depend on
+// chance (and MCTS on its time budget), so they are never cached across
+// requests.
+//
+//   java BotService [--port 8080] [--threads N] [--search-ms 50]
+final class BotService {
+    private static final int MAX_BODY = 4 * 1024 * 1024;
+    private static final String[] DIFFICULTIES = {"", "easy", "medium", "hard", "search", "mcts", "heuristic"};
+    private static final int HEURISTIC = 6;
+
+    // Per difficulty: position key -> (score << 8) | move
+    private final Map<Integer, Map<Long, Integer>> caches = new ConcurrentHashMap<>();
+    private final ThreadLocal<AIPlayer> players;
+
+    BotService(long searchMillis) {
+        players = ThreadLocal.withInitial(() -> {
+            AIPlayer ai = new AIPlayer();
+            ai.setSearchThreads(1);
+            ai.setSearchTimeMillis(searchMillis);
+            ai.setMonteCarloTimeMillis(searchMillis);
+            return ai;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long searchMillis = 50;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--search-ms": searchMillis = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        HttpServer server = start(new InetSocketAddress(port), Executors.newFixedThreadPool(threads), new BotService(searchMillis));
+        System.out.println("X & O bot service on http://localhost:" + server.getAddress().getPort() + "/move");
+    }
+
+    static HttpServer start(InetSocketAddress address, ExecutorService executor, BotService service) throws IOException {
+        // Small request/response pairs otherwise stall ~40 ms on Nagle + delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/move", service::handle);
+        server.createContext("/health", exchange -> respond(exchange, 200, "ok\n"));
+        server.setExecutor(executor);
+        server.start();
+        // Solve the table up front rather than on the first request
+        PerfectPlayTable.instance();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "POST positions, one per line\n");
+                return;
+            }
+            int difficulty = difficulty(exchange.getRequestURI().getQuery());
+            if (difficulty < 0) {
+                respond(exchange, 400, "difficulty must be easy, medium, hard, search, mcts or heuristic\n");
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "request body too large\n");
+                return;
+            }
+            respond(exchange, 200, evaluate(body, difficulty));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Answers every line of the batch; each distinct position is evaluated once
+    String evaluate(byte[] body, int difficulty) {
+        StringBuilder out = new StringBuilder(body.length / 2);
+        Map<Long, Integer> batch = new HashMap<>();
+        Map<Long, Integer> cache = difficulty == AIPlayer.EASY || difficulty == AIPlayer.MCTS ? null
+            : caches.computeIfAbsent(difficulty, d -> new ConcurrentHashMap<>());
+        boolean canonical = difficulty == AIPlayer.HARD || difficulty == AIPlayer.SEARCH;
+
+        int start = 0;
+        for (int i = 0; i <= body.length; i++) {
+            if (i < body.length && body[i] != '\n') continue;
+            int end = i > start && body[i - 1] == '\r' ? i - 1 : i;
+            if (end > start) answer(body, start, end, difficulty, canonical, batch, cache, out);
+            start = i + 1;
+        }
+        return out.toString();
+    }
+
+    private void answer(byte[] line, int start, int end, int difficulty, boolean canonical,
+                        Map<Long, Integer> batch, Map<Long, Integer> cache, StringBuilder out) {
+        if (end - start != 9 && end - start != 11) {
+            out.append("error expected 9 squares and an optional side\n");
+            return;
+        }
+        int playerOne = 0, playerTwo = 0;
+        for (int i = 0; i < 9; i++) {
+            switch (line[start + i]) {
+                case 'X': case 'x': playerOne |= 1 << i; break;
+                case 'O': case 'o': playerTwo |= 1 << i; break;
+                case '.': case '-': case '_': break;
+                default:
+                    out.append("error squares must be X, O or .\n");
+                    return;
+            }
+        }
+        int ones = Integer.bitCount(playerOne), twos = Integer.bitCount(playerTwo);
+        boolean playerOneToMove = ones <= twos;
+        if (end - start == 11) playerOneToMove = line[start + 10] == 'X' || line[start + 10] == 'x';
+        String problem = validate(playerOne, playerTwo, playerOneToMove);
+        if (problem != null) {
+            out.append("error ").append(problem).append('\n');
+            return;
+        }
+
+        // Symmetric engines share one entry per canonical position; the rest
+        // are keyed exactly, since their tie-breaks depend on orientation
+        long packed = Symmetry.canonicalize(playerOne, playerTwo, playerOneToMove);
+        int t = canonical ? Symmetry.transform(packed) : 0;
+        long key = canonical ? Symmetry.key(packed)
+            : (long) playerOne << 10 | playerTwo << 1 | (playerOneToMove ? 1 : 0);
+        Integer entry = batch.get(key);
+        if (entry == null && cache != null) entry = cache.get(key);
+        if (entry == null) {
+            entry = solve(Symmetry.transformMask(playerOne, t), Symmetry.transformMask(playerTwo, t), playerOneToMove, difficulty);
+            if (cache != null) cache.put(key, entry);
+        }
+        if (difficulty != AIPlayer.EASY) batch.put(key, entry);
+
+        int move = entry & 0xFF;
+        out.append(move == 0 ? 0 : Symmetry.untransformSquare(move, t)).append(' ').append(entry >> 8).append('\n');
+    }
+
+    private int solve(int playerOne, int playerTwo, boolean playerOneToMove, int difficulty) {
+        int score = PerfectPlayTable.instance().score(playerOne, playerTwo, playerOneToMove);
+        GameEngine engine = new GameEngine(playerOne, playerTwo, playerOneToMove);
+        if (engine.result() != GameEngine.IN_PROGRESS) return score << 8;
+        AIPlayer ai = players.get();
+        int move = difficulty == HEURISTIC ? ai.getUnbeatableMove(engine) : ai.getAIMove(engine, difficulty);
+        return score << 8 | move;
+    }
+
+    // Only positions reachable in a real game; the solved table holds nothing else
+    static String validate(int playerOne, int playerTwo, boolean playerOneToMove) {
+        int ones = Integer.bitCount(playerOne), twos = Integer.bitCount(playerTwo);
+        if (Math.abs(ones - twos) > 1) return "move counts differ by more than one";
+        if (ones > twos && playerOneToMove || twos > ones && !playerOneToMove) return "wrong side to move";
+        boolean oneWon = Board.isWin(playerOne), twoWon = Board.isWin(playerTwo);
+        if (oneWon && twoWon) return "both sides have three in a row";
+        if (oneWon && playerOneToMove || twoWon && !playerOneToMove) return "the winner cannot be the side to move";
+        return null;
+    }
+
+    private static int difficulty(String query) {
+        if (query == null) return AIPlayer.HARD;
+        for (String parameter : query.split("&")) {
+            if (!parameter.startsWith("difficulty=")) continue;
+            String name = parameter.substring("difficulty=".length());
+            for (int d = 1; d < DIFFICULTIES.length; d++) {
+                if (DIFFICULTIES[d].equalsIgnoreCase(name)) return d;
+            }
+            return -1;
+        }
+        return AIPlayer.HARD;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY + 1);
+        return body.length > MAX_BODY ? null : body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Headless game rules for one 3x3 round. No Swing types in here, so the AI,
+// tools and servers can drive a game without a JFrame or AWT toolkit.
+final class GameEngine {
+    static final int IN_PROGRESS = 0;
+    static final int PLAYER_ONE_WINS = 1;
+    static final int PLAYER_TWO_WINS = 2;
+    static final int DRAW = 3;
+
+    private final Board board = new Board();
+    private final int[] history = new int[Board.SQUARES];
+    private int moveCount = 0;
+
+    GameEngine() {
+    }
+
+    GameEngine(int playerOne, int playerTwo, boolean playerOneToMove) {
+        load(playerOne, playerTwo, playerOneToMove);
+    }
+
+    // Replaces the position in place, e.g. when decoding one off the wire
+    void load(int playerOne, int playerTwo, boolean playerOneToMove) {
+        board.playerOne = playerOne;
+        board.playerTwo = playerTwo;
+        board.playerOneToMove = playerOneToMove;
+        // History order is unknown for a loaded position, so undo stops here
+        moveCount = board.moveCount();
+        Arrays.fill(history, 0, moveCount, 0);
+    }
+
+    GameEngine copy() {
+        GameEngine copy = new GameEngine();
+        copy.board.playerOne = board.playerOne;
+        copy.board.playerTwo = board.playerTwo;
+        copy.board.playerOneToMove = board.playerOneToMove;
+        System.arraycopy(history, 0, copy.history, 0, moveCount);
+        copy.moveCount = moveCount;
+        return copy;
+    }
+
+    void reset(boolean playerOneFirst) {
+        board.clear(playerOneFirst);
+        moveCount = 0;
+    }
+
+    boolean isLegal(int pos) {
+        return pos >= 1 && pos <= Board.SQUARES && board.isEmpty(pos) && result() == IN_PROGRESS;
+    }
+
+    // Mask of squares the side to move may take (0 once the round is over)
+    int legalMoves() {
+        return result() == IN_PROGRESS ? board.empty() : 0;
+    }
+
+    boolean applyMove(int pos) {
+        if (!isLegal(pos)) return false;
+        board.place(pos, board.playerOneToMove);
+        history[moveCount++] = pos;
+        return true;
+    }
+
+    boolean undo() {
+        if (moveCount == 0 || history[moveCount - 1] == 0) return false;
+        int pos = history[--moveCount];
+        board.remove(pos, (board.playerOne & Board.bit(pos)) != 0);
+        return true;
+    }
+
+    int result() {
+        if (Board.isWin(board.playerOne)) return PLAYER_ONE_WINS;
+        if (Board.isWin(board.playerTwo)) return PLAYER_TWO_WINS;
+        return board.isFull() ? DRAW : IN_PROGRESS;
+    }
+
+    boolean isPlayerOneToMove() {
+        return board.playerOneToMove;
+    }
+
+    int playerOne() {
+        return board.playerOne;
+    }
+
+    int playerTwo() {
+        return board.playerTwo;
+    }
+
+    int empty() {
+        return board.empty();
+    }
+
+    boolean isEmpty(int pos) {
+        return board.isEmpty(pos);
+    }
+
+    int moveCount() {
+        return moveCount;
+    }
+
+    int lastMove() {
+        return moveCount == 0 ? -1 : history[moveCount - 1];
+    }
+}
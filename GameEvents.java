@@ -0,0 +1,92 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events, so AI cost and result-screen time can be
+// lined up with GC and safepoint data in one recording:
+//
+//   java -XX:StartFlightRecording=filename=xando.jfr XandO
+//   jfr print --events 'xando.*' xando.jfr
+//
+// Outside a recording shouldCommit() is false and the fields are never
+// filled in. Sites on the AI's hot path also check recorderStarted() first,
+// so tournament-speed play does not even allocate the event.
+final class GameEvents {
+    static final String[] STRATEGIES = {"", "Win", "Block win", "Fork", "Block fork", "Opening", "Reply",
+        "Positional", "Center", "Opposite corner", "Corner", "Safe edge", "Fallback"};
+
+    private GameEvents() {
+    }
+
+    @Name("xando.Move")
+    @Label("Move")
+    @Category("X and O")
+    @Description("A move played on the board; compute time is set for AI moves")
+    @StackTrace(false)
+    static final class Move extends Event {
+        @Label("Square")
+        int square;
+
+        @Label("Player")
+        @Description("1 = X, 2 = O")
+        int player;
+
+        @Label("Difficulty")
+        @Description("AI difficulty, 0 for a match between two humans")
+        int difficulty;
+
+        @Label("Position")
+        @Description("Squares 1-9 after the move, X, O or '.'")
+        String position;
+
+        @Label("Compute Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long computeTime;
+    }
+
+    @Name("xando.Strategy")
+    @Label("Strategy")
+    @Category("X and O")
+    @Description("The rule of getUnbeatableMove that picked the move")
+    @StackTrace(false)
+    static final class Strategy extends Event {
+        @Label("Strategy")
+        int strategy;
+
+        @Label("Name")
+        String name;
+
+        @Label("Square")
+        int square;
+    }
+
+    @Name("xando.Overlay")
+    @Label("Result Overlay")
+    @Category("X and O")
+    @Description("Time a round or match result stayed on screen; the event thread is not blocked meanwhile")
+    @StackTrace(false)
+    static final class Overlay extends Event {
+        @Label("Overlay")
+        String overlay;
+    }
+
+    // False until some recording has started in this JVM; one static read
+    static boolean recorderStarted() {
+        return FlightRecorder.isInitialized();
+    }
+
+    // Nine characters, X, O or '.', for squares 1-9
+    static String position(GameEngine engine) {
+        char[] squares = new char[Board.SQUARES];
+        for (int pos = 1; pos <= Board.SQUARES; pos++) {
+            int bit = Board.bit(pos);
+            squares[pos - 1] = (engine.playerOne() & bit) != 0 ? 'X' : (engine.playerTwo() & bit) != 0 ? 'O' : '.';
+        }
+        return new String(squares);
+    }
+}
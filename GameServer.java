@@ -0,0 +1,469 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+
+// Hosts best-of-3 and best-of-5 series between remote players. One selector
+// thread serves every connection, and a connection costs one small buffer
+// plus its half of a MatchState, so idle matches cost almost nothing. The
+// server owns each MatchState and only relays moves it has accepted.
+//
+// Line protocol, ASCII, one message per '\n':
+//   client -> server   HELLO <roundsToWin> <name>   join the queue for a series
+//                      MOVE <pos>                   play square 1-9 on your turn
+//                      READY                        start the next round (or a rematch)
+//   server -> client   WAIT                         queued, no opponent yet
+//                      START <side> <roundsToWin> <opponent>   side 1 is X, 2 is O
+//                      ROUND <1|0>                  new round; 1 if player one moves first
+//                      MOVE <pos>                   an accepted move by either side
+//                      LEFT                         the opponent disconnected; HELLO again to requeue
+//                      ERROR <reason>
+//
+// Clients may instead speak the binary framing in WireProtocol, where a
+// move is one byte and ROUND is replaced by a MatchCodec snapshot; the first
+// byte a client sends tells the two apart.
+//
+// Rounds and scores are not sent as text: both ends apply the same moves to
+// their own MatchState. After a round ends the next one starts once both
+// players send READY, and the player who moved second goes first.
+//
+//   java GameServer [--port 7777]
+final class GameServer implements Runnable {
+    static final int DEFAULT_PORT = 7777;
+    private static final int MAX_LINE = 128;
+    private static final int MAX_QUEUED_BYTES = 16 * 1024;
+    private static final int UNKNOWN = 0, TEXT = 1, BINARY = 2;
+    private static final String[] MOVE_LINES = {"", "MOVE 1", "MOVE 2", "MOVE 3", "MOVE 4", "MOVE 5", "MOVE 6", "MOVE 7", "MOVE 8", "MOVE 9"};
+
+    private final Selector selector;
+    private final ServerSocketChannel listener;
+    private final Random random = new Random();
+    // Outgoing binary frames are built here; the selector thread is the only user
+    private final ByteBuffer frame = ByteBuffer.allocateDirect(64);
+    // Opponents of closed connections, told LEFT once the current send is
+    // done; sending from inside close() would reuse frame mid-send
+    private final ArrayDeque<Connection> leftBehind = new ArrayDeque<>();
+    // Players waiting for an opponent, indexed by roundsToWin
+    private final Connection[] waiting = new Connection[4];
+    private volatile boolean running = true;
+    private volatile int connections, sessions;
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        ArrayDeque<ByteBuffer> out;   // Created only when the socket pushes back
+        int queuedBytes;
+        int protocol = UNKNOWN;   // Decided by the first byte the client sends
+        String name;
+        Session session;
+        int side;   // 1 = player one (X), 2 = player two (O)
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Session {
+        final MatchState match;
+        final Connection[] players = new Connection[3];
+        final boolean[] ready = new boolean[3];
+        boolean playerOneFirst;
+
+        Session(int roundsToWin) {
+            match = new MatchState(roundsToWin);
+        }
+    }
+
+    GameServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        listener = ServerSocketChannel.open();
+        listener.bind(address, 1024);
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port")) port = Integer.parseInt(args[++i]);
+        }
+        GameServer server = new GameServer(new InetSocketAddress(port));
+        System.out.println("X & O server listening on port " + server.port());
+        server.run();
+    }
+
+    int port() {
+        return listener.socket().getLocalPort();
+    }
+
+    int connections() {
+        return connections;
+    }
+
+    int sessions() {
+        return sessions;
+    }
+
+    Thread start() {
+        Thread thread = new Thread(this, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException e) {
+                            // Typically out of file descriptors; keep serving the rest
+                            System.err.println("Accept failed: " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isWritable()) flush(connection, key);
+                        if (key.isValid() && key.isReadable()) read(connection);
+                    } catch (IOException e) {
+                        close(connection);
+                    } catch (RuntimeException e) {
+                        // A bug hit by one connection must not stop the
+                        // selector thread for everyone else
+                        System.err.println("Dropping connection: " + e);
+                        frame.clear();
+                        close(connection);
+                    }
+                    sendLeftBehind();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Server error: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = listener.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            connections++;
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        int n = connection.channel.read(connection.in);
+        if (n < 0) {
+            close(connection);
+            return;
+        }
+        ByteBuffer in = connection.in;
+        if (connection.protocol == UNKNOWN && in.position() > 0) {
+            connection.protocol = WireProtocol.type(in.get(0)) == WireProtocol.HELLO ? BINARY : TEXT;
+        }
+        int consumed = connection.protocol == BINARY ? readFrames(connection) : readLines(connection);
+        if (consumed < 0 || !connection.channel.isOpen()) {
+            close(connection);
+            return;
+        }
+        if (consumed == 0 && !in.hasRemaining()) {
+            error(connection, WireProtocol.ERROR_BAD_FRAME, "line too long");
+            close(connection);
+            return;
+        }
+        // Keep the partial message for the next read
+        in.limit(in.position()).position(consumed);
+        in.compact();
+    }
+
+    // Returns the bytes consumed, or -1 once the connection should be dropped
+    private int readLines(Connection connection) {
+        ByteBuffer in = connection.in;
+        int start = 0;
+        for (int i = 0; i < in.position(); i++) {
+            if (in.get(i) != '\n') continue;
+            String line = new String(in.array(), start, i - start, StandardCharsets.US_ASCII).trim();
+            start = i + 1;
+            String[] parts = line.split(" ", 3);
+            switch (parts[0]) {
+                case "HELLO":
+                    hello(connection, parts.length > 1 ? parseInt(parts[1]) : -1, parts.length > 2 ? parts[2] : null);
+                    break;
+                case "MOVE": move(connection, parts.length > 1 ? parseInt(parts[1]) : -1); break;
+                case "READY": ready(connection); break;
+                case "": break;
+                default: error(connection, WireProtocol.ERROR_BAD_FRAME, "unknown command");
+            }
+            if (!connection.channel.isOpen()) return -1;
+        }
+        return start;
+    }
+
+    private int readFrames(Connection connection) {
+        ByteBuffer in = connection.in;
+        int start = 0, length;
+        while ((length = WireProtocol.frameLength(in, start, in.position())) > 0) {
+            if (start + length > in.position()) break;
+            int header = in.get(start);
+            switch (WireProtocol.type(header)) {
+                case WireProtocol.HELLO: hello(connection, WireProtocol.arg(header), WireProtocol.name(in, start)); break;
+                case WireProtocol.MOVE: move(connection, WireProtocol.arg(header)); break;
+                case WireProtocol.READY: ready(connection); break;
+                default:
+                    error(connection, WireProtocol.ERROR_BAD_FRAME, "unknown command");
+                    return -1;
+            }
+            if (!connection.channel.isOpen()) return -1;
+            start += length;
+        }
+        if (length == 0) {
+            error(connection, WireProtocol.ERROR_BAD_FRAME, "malformed frame");
+            return -1;
+        }
+        return start;
+    }
+
+    private void hello(Connection connection, int roundsToWin, String name) {
+        if (connection.session != null || isWaiting(connection) || name == null || name.isEmpty()) {
+            error(connection, WireProtocol.ERROR_BAD_FRAME, "expected HELLO <roundsToWin> <name>");
+            return;
+        }
+        if (roundsToWin < 2 || roundsToWin > 3) {
+            error(connection, WireProtocol.ERROR_BAD_ROUNDS, "roundsToWin must be 2 or 3");
+            return;
+        }
+        connection.name = name.replace(' ', '_');
+        Connection opponent = waiting[roundsToWin];
+        if (opponent == null) {
+            waiting[roundsToWin] = connection;
+            sendWait(connection);
+            return;
+        }
+        waiting[roundsToWin] = null;
+
+        Session session = new Session(roundsToWin);
+        session.players[1] = opponent;
+        session.players[2] = connection;
+        opponent.session = connection.session = session;
+        opponent.side = 1;
+        connection.side = 2;
+        sessions++;
+        session.playerOneFirst = random.nextBoolean();
+        session.match.newMatch(roundsToWin, session.playerOneFirst);
+        sendStart(opponent, 1, roundsToWin, connection.name);
+        sendStart(connection, 2, roundsToWin, opponent.name);
+        sendRound(session);
+    }
+
+    private void move(Connection connection, int pos) {
+        Session session = connection.session;
+        if (session == null) {
+            error(connection, WireProtocol.ERROR_NOT_IN_MATCH, "not in a match");
+            return;
+        }
+        GameEngine engine = session.match.engine();
+        boolean yourTurn = engine.isPlayerOneToMove() == (connection.side == 1);
+        if (!yourTurn || !session.match.applyMove(pos)) {
+            error(connection, WireProtocol.ERROR_ILLEGAL_MOVE, "illegal move");
+            return;
+        }
+        sendMove(session.players[1], pos);
+        sendMove(session.players[2], pos);
+        if (session.match.isRoundOver()) {
+            session.ready[1] = session.ready[2] = false;
+        }
+    }
+
+    private void ready(Connection connection) {
+        Session session = connection.session;
+        if (session == null || !session.match.isRoundOver()) return;
+        session.ready[connection.side] = true;
+        if (!session.ready[1] || !session.ready[2]) return;
+
+        session.ready[1] = session.ready[2] = false;
+        session.playerOneFirst = !session.playerOneFirst;
+        if (session.match.isOver()) {
+            session.match.newMatch(session.match.roundsToWin(), session.playerOneFirst);
+        } else {
+            session.match.nextRound(session.playerOneFirst);
+        }
+        sendRound(session);
+    }
+
+    // Each message goes out as a line or a frame, whichever the client spoke
+
+    private void sendWait(Connection connection) {
+        if (connection.protocol == BINARY) {
+            WireProtocol.put(frame, WireProtocol.WAIT, 0);
+            sendFrame(connection);
+        } else {
+            send(connection, "WAIT");
+        }
+    }
+
+    private void sendStart(Connection connection, int side, int roundsToWin, String opponent) {
+        if (connection.protocol == BINARY) {
+            WireProtocol.putStart(frame, side, roundsToWin, opponent);
+            sendFrame(connection);
+        } else {
+            send(connection, "START " + side + " " + roundsToWin + " " + opponent);
+        }
+    }
+
+    // Binary clients get a full snapshot per round and only deltas in between
+    private void sendRound(Session session) {
+        int packed = MatchCodec.encode(session.match, 0);
+        for (int side = 1; side <= 2; side++) {
+            Connection connection = session.players[side];
+            if (connection.protocol == BINARY) {
+                WireProtocol.putState(frame, packed);
+                sendFrame(connection);
+            } else {
+                send(connection, session.playerOneFirst ? "ROUND 1" : "ROUND 0");
+            }
+        }
+    }
+
+    private void sendMove(Connection connection, int pos) {
+        if (connection.protocol == BINARY) {
+            WireProtocol.put(frame, WireProtocol.MOVE, pos);
+            sendFrame(connection);
+        } else {
+            send(connection, MOVE_LINES[pos]);
+        }
+    }
+
+    private void sendLeft(Connection connection) {
+        if (connection.protocol == BINARY) {
+            WireProtocol.put(frame, WireProtocol.LEFT, 0);
+            sendFrame(connection);
+        } else {
+            send(connection, "LEFT");
+        }
+    }
+
+    private void error(Connection connection, int code, String reason) {
+        if (connection.protocol == BINARY) {
+            WireProtocol.put(frame, WireProtocol.ERROR, code);
+            sendFrame(connection);
+        } else {
+            send(connection, "ERROR " + reason);
+        }
+    }
+
+    private void send(Connection connection, String line) {
+        write(connection, ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII)), false);
+    }
+
+    private void sendFrame(Connection connection) {
+        frame.flip();
+        write(connection, frame, true);
+        frame.clear();
+    }
+
+    // Writes straight to the socket; only a slow reader gets a queue, and
+    // only then is a shared buffer copied
+    private void write(Connection connection, ByteBuffer buffer, boolean shared) {
+        if (!connection.channel.isOpen()) return;
+        try {
+            if (connection.out == null || connection.out.isEmpty()) {
+                connection.channel.write(buffer);
+                if (!buffer.hasRemaining()) return;
+            }
+            if (shared) buffer = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+            if (connection.out == null) connection.out = new ArrayDeque<>();
+            connection.out.add(buffer);
+            connection.queuedBytes += buffer.remaining();
+            if (connection.queuedBytes > MAX_QUEUED_BYTES) {
+                close(connection);
+                return;
+            }
+            connection.channel.keyFor(selector).interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    private void flush(Connection connection, SelectionKey key) throws IOException {
+        while (!connection.out.isEmpty()) {
+            ByteBuffer buffer = connection.out.peek();
+            connection.queuedBytes -= connection.channel.write(buffer);
+            if (buffer.hasRemaining()) return;
+            connection.out.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void close(Connection connection) {
+        if (!connection.channel.isOpen()) return;
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+        }
+        connections--;
+        for (int i = 0; i < waiting.length; i++) {
+            if (waiting[i] == connection) waiting[i] = null;
+        }
+        Session session = connection.session;
+        if (session != null) {
+            Connection opponent = session.players[3 - connection.side];
+            opponent.session = null;
+            connection.session = null;
+            sessions--;
+            leftBehind.add(opponent);
+        }
+    }
+
+    private void sendLeftBehind() {
+        Connection opponent;
+        while ((opponent = leftBehind.poll()) != null) sendLeft(opponent);
+    }
+
+    private boolean isWaiting(Connection connection) {
+        for (Connection queued : waiting) {
+            if (queued == connection) return true;
+        }
+        return false;
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
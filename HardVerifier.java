@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Exhaustive check that an AI never loses: every sequence of human moves is
+// played against it, with the AI moving first (X) and second (O). Both AI
+// players are deterministic, so each position's outcome is memoized and the
+// subtrees under the human's first move are explored in parallel. Any losing
+// line is printed as a move list that replays the loss exactly.
+//
+//   java HardVerifier [--engine hard|heuristic] [--threads T] [--max-lines N]
+//
+// Exits with 1 if the AI can be beaten.
+final class HardVerifier {
+    // Memo entries are (sequences << 1) | lost, so 0 means not explored yet
+    private static final int POSITIONS = 1 << (2 * Board.SQUARES);
+
+    private final String engineName;
+    private final boolean aiFirst;
+    private final AtomicLongArray memo = new AtomicLongArray(POSITIONS);
+
+    private HardVerifier(String engineName, boolean aiFirst) {
+        this.engineName = engineName;
+        this.aiFirst = aiFirst;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String engineName = "hard";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxLines = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine": engineName = args[++i].toLowerCase(); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--max-lines": maxLines = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (!engineName.equals("hard") && !engineName.equals("heuristic")) {
+            System.err.println("Engine must be hard or heuristic");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        boolean beaten = false;
+        try {
+            for (boolean aiFirst : new boolean[] {true, false}) {
+                beaten |= new HardVerifier(engineName, aiFirst).verify(pool, maxLines);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("%s %s in %d ms%n", engineName, beaten ? "CAN BE BEATEN" : "never loses",
+            (System.nanoTime() - start) / 1_000_000);
+        System.exit(beaten ? 1 : 0);
+    }
+
+    // Explores the whole tree for one seating and reports; true if the AI lost
+    private boolean verify(ExecutorService pool, int maxLines) throws Exception {
+        GameEngine root = new GameEngine();
+        root.reset(!aiFirst);   // The human is player one, as in the Swing game
+        AIPlayer rootAi = new AIPlayer();
+        if (aiFirst) root.applyMove(aiMove(rootAi, root));
+
+        List<Future<Long>> parts = new ArrayList<>();
+        for (int rest = root.empty(); rest != 0; rest &= rest - 1) {
+            int square = Board.firstSquare(rest & -rest);
+            parts.add(pool.submit(() -> humanMove(root.copy(), new AIPlayer(), square)));
+        }
+        long sequences = 0;
+        boolean lost = false;
+        for (Future<Long> part : parts) {
+            long outcome = part.get();
+            sequences += outcome >>> 1;
+            lost |= (outcome & 1) != 0;
+        }
+        int positions = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            if (memo.get(i) != 0) positions++;
+        }
+
+        System.out.printf("AI as %s: %d human move sequences, %d positions, %s%n",
+            aiFirst ? "X" : "O", sequences, positions, lost ? "LOSSES FOUND" : "no losses");
+        if (lost) {
+            List<String> lines = new ArrayList<>();
+            collectLosses(root, rootAi, new ArrayList<>(), lines, maxLines);
+            for (String line : lines) System.out.println("  " + line);
+        }
+        return lost;
+    }
+
+    // Human to move: try every square and let the AI answer each one
+    private long explore(GameEngine game, AIPlayer ai) {
+        int index = game.playerOne() | game.playerTwo() << Board.SQUARES;
+        long known = memo.get(index);
+        if (known != 0) return known;
+
+        long sequences = 0;
+        boolean lost = false;
+        for (int rest = game.empty(); rest != 0; rest &= rest - 1) {
+            long outcome = humanMove(game, ai, Board.firstSquare(rest & -rest));
+            sequences += outcome >>> 1;
+            lost |= (outcome & 1) != 0;
+        }
+        // Racing threads can only ever store the same value here
+        long outcome = sequences << 1 | (lost ? 1 : 0);
+        memo.set(index, outcome);
+        return outcome;
+    }
+
+    private long humanMove(GameEngine game, AIPlayer ai, int square) {
+        game.applyMove(square);
+        long outcome;
+        if (game.result() == GameEngine.PLAYER_ONE_WINS) {
+            outcome = 1 << 1 | 1;
+        } else if (game.result() != GameEngine.IN_PROGRESS) {
+            outcome = 1 << 1;
+        } else {
+            game.applyMove(aiMove(ai, game));
+            outcome = game.result() == GameEngine.IN_PROGRESS ? explore(game, ai) : 1 << 1;
+            game.undo();
+        }
+        game.undo();
+        return outcome;
+    }
+
+    // Walks only the subtrees the memo marked as lost, recording each line
+    private void collectLosses(GameEngine game, AIPlayer ai, List<Integer> line, List<String> lines, int maxLines) {
+        for (int rest = game.empty(); rest != 0 && lines.size() < maxLines; rest &= rest - 1) {
+            int square = Board.firstSquare(rest & -rest);
+            game.applyMove(square);
+            line.add(square);
+            if (game.result() == GameEngine.PLAYER_ONE_WINS) {
+                lines.add(describe(line));
+            } else if (game.result() == GameEngine.IN_PROGRESS) {
+                int reply = aiMove(ai, game);
+                game.applyMove(reply);
+                line.add(reply);
+                int index = game.playerOne() | game.playerTwo() << Board.SQUARES;
+                if (game.result() == GameEngine.IN_PROGRESS && (memo.get(index) & 1) != 0) {
+                    collectLosses(game, ai, line, lines, maxLines);
+                }
+                line.remove(line.size() - 1);
+                game.undo();
+            }
+            line.remove(line.size() - 1);
+            game.undo();
+        }
+    }
+
+    // Prefixes from the starting position, e.g. "X1 O5 X9 O3 X7"
+    private String describe(List<Integer> moves) {
+        StringBuilder text = new StringBuilder();
+        if (aiFirst) text.append("X").append(firstAiMove()).append(' ');
+        for (int i = 0; i < moves.size(); i++) {
+            boolean x = aiFirst ? i % 2 == 1 : i % 2 == 0;
+            text.append(x ? 'X' : 'O').append(moves.get(i)).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private int firstAiMove() {
+        GameEngine opening = new GameEngine();
+        opening.reset(false);
+        return aiMove(new AIPlayer(), opening);
+    }
+
+    private int aiMove(AIPlayer ai, GameEngine game) {
+        int move = engineName.equals("hard") ? ai.getPerfectMove(game) : ai.getUnbeatableMove(game);
+        if (!game.isLegal(move)) {
+            throw new IllegalStateException(engineName + " played illegal move " + move);
+        }
+        return move;
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Load test for GameServer over loopback with bots in place of players.
+// First it parks a number of idle matches (paired, nobody ever moves), then
+// plays full series between random-move bots on one client selector. Each
+// bot keeps its own MatchState from the relayed moves, and the run fails if
+// the server relays an illegal move or a series never finishes. With
+// --binary the bots speak WireProtocol and also check every round's
+// snapshot against the score they tracked themselves.
+//
+//   java LoopbackHarness [--idle 2000] [--matches 1000] [--seed S] [--binary]
+//
+// Each connection uses two file descriptors here (client and server side),
+// so raise ulimit -n for tens of thousands of idle matches.
+final class LoopbackHarness {
+    private static final long TIMEOUT_NANOS = 60_000_000_000L;
+
+    private static final class Bot {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(256);
+        final MatchState match = new MatchState(2);
+        final MatchState snapshot = new MatchState(2);
+        int side;
+        boolean done;
+
+        Bot(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final SplittableRandom random;
+    private final boolean binary;
+    private final ByteBuffer frame = ByteBuffer.allocate(64);
+    private int finished;
+    private long moves, rounds;
+
+    private LoopbackHarness(long seed, boolean binary) {
+        random = new SplittableRandom(seed);
+        this.binary = binary;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int idle = 2000, matches = 1000;
+        long seed = System.nanoTime();
+        boolean binary = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--idle": idle = Integer.parseInt(args[++i]); break;
+                case "--matches": matches = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--binary": binary = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.port());
+        boolean ok = new LoopbackHarness(seed, binary).run(server, address, idle, matches);
+        server.stop();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private boolean run(GameServer server, InetSocketAddress address, int idle, int matches) throws IOException, InterruptedException {
+        long heapBefore = usedHeap();
+        List<SocketChannel> parked = new ArrayList<>();
+        for (int i = 0; i < idle * 2; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            send(channel, "HELLO 2 idle" + i);
+            parked.add(channel);
+        }
+        if (!awaitSessions(server, idle)) {
+            System.out.println("FAILED: only " + server.sessions() + " of " + idle + " idle matches were paired");
+            return false;
+        }
+        long heapPerMatch = idle == 0 ? 0 : (usedHeap() - heapBefore) / idle;
+        System.out.printf("%d idle matches parked, ~%d heap bytes each (client and server side)%n", idle, heapPerMatch);
+
+        Selector selector = Selector.open();
+        long start = System.nanoTime();
+        for (int i = 0; i < matches * 2; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Bot(channel));
+            // Neighbouring bots share a series length, so both lengths get played
+            int roundsToWin = i / 2 % 2 == 0 ? 2 : 3;
+            if (binary) {
+                WireProtocol.putHello(frame, roundsToWin, "bot" + i);
+                sendFrame(channel);
+            } else {
+                send(channel, "HELLO " + roundsToWin + " bot" + i);
+            }
+        }
+        while (finished < matches * 2) {
+            if (System.nanoTime() - start > TIMEOUT_NANOS) {
+                System.out.println("FAILED: timed out with " + finished / 2 + " of " + matches + " series finished");
+                return false;
+            }
+            selector.select(1000);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!read((Bot) key.attachment())) return false;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, (binary ? "binary: " : "text: ") + "%d series, %d rounds, %d moves in %.2f s: %.0f series/s, %.0f moves/s%n",
+            matches, rounds / 2, moves / 2, seconds, matches / seconds, moves / 2 / seconds);
+        System.out.println("Server still holds " + server.sessions() + " matches over " + server.connections() + " connections");
+
+        selector.close();
+        for (SocketChannel channel : parked) channel.close();
+        return true;
+    }
+
+    private boolean read(Bot bot) throws IOException {
+        if (bot.channel.read(bot.in) < 0) {
+            if (bot.done) return true;
+            System.out.println("FAILED: server closed a bot's connection mid-series");
+            return false;
+        }
+        ByteBuffer in = bot.in;
+        int start = 0;
+        if (binary) {
+            int length;
+            while ((length = WireProtocol.frameLength(in, start, in.position())) > 0 && start + length <= in.position()) {
+                if (!bot.done && !handleFrame(bot, in, start)) return false;
+                start += length;
+            }
+        } else {
+            for (int i = 0; i < in.position(); i++) {
+                if (in.get(i) != '\n') continue;
+                String line = new String(in.array(), start, i - start, StandardCharsets.US_ASCII);
+                start = i + 1;
+                if (!bot.done && !handleLine(bot, line)) return false;
+            }
+        }
+        in.limit(in.position()).position(start);
+        in.compact();
+        return true;
+    }
+
+    private boolean handleLine(Bot bot, String line) throws IOException {
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "START":
+                bot.side = Integer.parseInt(parts[1]);
+                bot.match.newMatch(Integer.parseInt(parts[2]), true);
+                return true;
+            case "ROUND":
+                bot.match.nextRound(parts[1].equals("1"));
+                return startRound(bot);
+            case "MOVE":
+                return moved(bot, Integer.parseInt(parts[1]));
+            case "WAIT":
+                return true;
+            default:
+                System.out.println("FAILED: unexpected message " + line);
+                return false;
+        }
+    }
+
+    private boolean handleFrame(Bot bot, ByteBuffer in, int offset) throws IOException {
+        int header = in.get(offset);
+        switch (WireProtocol.type(header)) {
+            case WireProtocol.START:
+                bot.side = WireProtocol.arg(header);
+                bot.match.newMatch(in.get(offset + 1), true);
+                return true;
+            case WireProtocol.STATE:
+                if (!MatchCodec.decode(in.getInt(offset + 1), bot.snapshot)
+                        || bot.snapshot.p1Wins() != bot.match.p1Wins() || bot.snapshot.p2Wins() != bot.match.p2Wins()
+                        || bot.snapshot.roundsToWin() != bot.match.roundsToWin() || bot.snapshot.engine().moveCount() != 0) {
+                    System.out.println("FAILED: round snapshot disagrees with the bot's own score");
+                    return false;
+                }
+                bot.match.nextRound(bot.snapshot.engine().isPlayerOneToMove());
+                return startRound(bot);
+            case WireProtocol.MOVE:
+                return moved(bot, WireProtocol.arg(header));
+            case WireProtocol.WAIT:
+                return true;
+            default:
+                System.out.println("FAILED: unexpected frame type " + WireProtocol.type(header));
+                return false;
+        }
+    }
+
+    private boolean startRound(Bot bot) throws IOException {
+        rounds++;
+        playIfOurTurn(bot);
+        return true;
+    }
+
+    private boolean moved(Bot bot, int pos) throws IOException {
+        if (!bot.match.applyMove(pos)) {
+            System.out.println("FAILED: server relayed illegal move " + pos);
+            return false;
+        }
+        moves++;
+        if (bot.match.isOver()) {
+            bot.done = true;
+            finished++;
+            bot.channel.close();
+        } else if (bot.match.isRoundOver()) {
+            if (binary) {
+                WireProtocol.put(frame, WireProtocol.READY, 0);
+                sendFrame(bot.channel);
+            } else {
+                send(bot.channel, "READY");
+            }
+        } else {
+            playIfOurTurn(bot);
+        }
+        return true;
+    }
+
+    private void playIfOurTurn(Bot bot) throws IOException {
+        GameEngine engine = bot.match.engine();
+        if (engine.isPlayerOneToMove() != (bot.side == 1)) return;
+        int empty = engine.empty();
+        int n = random.nextInt(Integer.bitCount(empty));
+        while (n-- > 0) empty &= empty - 1;
+        if (binary) {
+            WireProtocol.put(frame, WireProtocol.MOVE, Board.firstSquare(empty));
+            sendFrame(bot.channel);
+        } else {
+            send(bot.channel, "MOVE " + Board.firstSquare(empty));
+        }
+    }
+
+    private void sendFrame(SocketChannel channel) throws IOException {
+        frame.flip();
+        while (frame.hasRemaining()) channel.write(frame);
+        frame.clear();
+    }
+
+    private static void send(SocketChannel channel, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static boolean awaitSessions(GameServer server, int sessions) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (server.sessions() < sessions) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        Thread.sleep(50);
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
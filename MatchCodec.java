@@ -0,0 +1,57 @@
+// A whole match packed into one int, so a snapshot on the wire or on disk
+// is four bytes and encoding or decoding never allocates:
+//
+//   bits  0-8   player one's squares     bits 23-24  p1Wins
+//   bits  9-17  player two's squares     bits 25-26  p2Wins
+//   bit   18    player one to move       bits 27-28  roundsToWin
+//   bits 19-22  moves played this round  bits 29-31  difficulty (0 = two humans)
+//
+// The move count is redundant with the two masks; decode uses it to reject
+// corrupted snapshots.
+final class MatchCodec {
+    private static final int SIDE_SHIFT = 18;
+    private static final int TURN_SHIFT = 19;
+    private static final int P1_WINS_SHIFT = 23;
+    private static final int P2_WINS_SHIFT = 25;
+    private static final int ROUNDS_SHIFT = 27;
+    private static final int DIFFICULTY_SHIFT = 29;
+
+    private MatchCodec() {
+    }
+
+    static int encode(MatchState match, int difficulty) {
+        GameEngine engine = match.engine();
+        return engine.playerOne()
+            | engine.playerTwo() << Board.SQUARES
+            | (engine.isPlayerOneToMove() ? 1 : 0) << SIDE_SHIFT
+            | (Board.SQUARES - Integer.bitCount(engine.empty())) << TURN_SHIFT
+            | match.p1Wins() << P1_WINS_SHIFT
+            | match.p2Wins() << P2_WINS_SHIFT
+            | match.roundsToWin() << ROUNDS_SHIFT
+            | difficulty << DIFFICULTY_SHIFT;
+    }
+
+    // Loads the snapshot into an existing MatchState; false if it is inconsistent
+    static boolean decode(int packed, MatchState match) {
+        int playerOne = packed & Board.ALL;
+        int playerTwo = packed >>> Board.SQUARES & Board.ALL;
+        int turn = packed >>> TURN_SHIFT & 0xF;
+        int p1Wins = packed >>> P1_WINS_SHIFT & 3;
+        int p2Wins = packed >>> P2_WINS_SHIFT & 3;
+        int roundsToWin = packed >>> ROUNDS_SHIFT & 3;
+        if ((playerOne & playerTwo) != 0 || Integer.bitCount(playerOne | playerTwo) != turn
+                || roundsToWin == 0 || p1Wins > roundsToWin || p2Wins > roundsToWin) {
+            return false;
+        }
+        match.restore(playerOne, playerTwo, (packed >>> SIDE_SHIFT & 1) != 0, p1Wins, p2Wins, roundsToWin);
+        return true;
+    }
+
+    static int roundsToWin(int packed) {
+        return packed >>> ROUNDS_SHIFT & 3;
+    }
+
+    static int difficulty(int packed) {
+        return packed >>> DIFFICULTY_SHIFT;
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only history of every move, round result and series outcome.
+// Callers only enqueue (a full queue drops the record rather than wait), and
+// a dedicated thread writes whatever has queued up and fsyncs once per
+// batch, so a burst of moves costs one disk sync. That thread also opens the
+// file, so records queue up while it does and no caller waits on the disk.
+//
+// The file is a 16-byte header, then fixed 16-byte records:
+//   byte 0      type (MATCH_START, MOVE, ROUND_END, MATCH_END)
+//   byte 1      arg: difficulty, square, round result or champion
+//   bytes 2-3   low 16 bits of a CRC32 over the other 14 bytes
+//   bytes 4-7   MatchCodec snapshot after the event
+//   bytes 8-15  wall-clock millis
+// A torn record at the tail fails its checksum and readers stop there, so
+// open() cuts the file back to the last record that passes before it
+// appends anything after a crash. The writer holds an exclusive lock on the
+// file while it is open, so a second game on the same log runs without one
+// instead of truncating or interleaving with the first.
+final class MatchLog {
+    static final byte[] MAGIC = {'X', 'O', 'L', 'O', 'G', 0, 0, 1};
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    static final int MATCH_START = 1;
+    static final int MOVE = 2;
+    static final int ROUND_END = 3;
+    static final int MATCH_END = 4;
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int BATCH = 256;
+
+    private static final long[] CLOSE = new long[0];
+
+    private final BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Path path;
+    private FileChannel channel;   // only touched by the writer thread
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile long dropped, written, syncs;
+
+    private MatchLog(Path path) {
+        this.path = path;
+        writer = new Thread(this::run, "match-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // ~/.xando/matches.log unless -Dxando.log is set
+    static Path defaultPath() {
+        String path = System.getProperty("xando.log");
+        return path != null ? Path.of(path) : Path.of(System.getProperty("user.home"), ".xando", "matches.log");
+    }
+
+    // Returns at once and opens the file on the writer thread. If it cannot
+    // be opened, records are discarded and the game simply runs without one.
+    static MatchLog open(Path path) {
+        return new MatchLog(path);
+    }
+
+    // Opens for append, writing the header if the file is new; null if the
+    // file cannot be used. The lock is released when the channel closes.
+    private static FileChannel openChannel(Path path) {
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            if (!tryLock(channel)) {
+                channel.close();
+                System.err.println("Match log disabled: " + path + " is in use by another game");
+                return null;
+            }
+            long size = channel.size();
+            if (size > 0 && !hasMagic(channel)) {
+                channel.close();
+                System.err.println("Match log disabled: " + path + " is not a match log");
+                return null;
+            }
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).put(MAGIC);
+                header.clear();
+                channel.write(header, 0);
+                channel.force(true);
+                size = HEADER_BYTES;
+            }
+            // Drop torn or partial records left by a crash; appended after
+            // them, new records would sit past where readers stop
+            long end = HEADER_BYTES + validRecords(channel, size) * RECORD_BYTES;
+            if (end < size) System.err.println("Match log: dropped " + (size - end) + " bytes of torn records from " + path);
+            channel.truncate(end);
+            channel.position(end);
+            return channel;
+        } catch (IOException e) {
+            System.err.println("Match log disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // False if another process, or another MatchLog in this one, has the file
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasMagic(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+        channel.read(header, 0);
+        return header.flip().equals(ByteBuffer.wrap(MAGIC));
+    }
+
+    // Whole records from the start that pass their checksum, up to the first
+    // that fails - the same rule MatchLogReader stops by
+    private static long validRecords(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH * RECORD_BYTES);
+        CRC32 crc = new CRC32();
+        long count = (size - HEADER_BYTES) / RECORD_BYTES, valid = 0;
+        while (valid < count) {
+            long at = HEADER_BYTES + valid * RECORD_BYTES;
+            buffer.clear().limit((int) Math.min(buffer.capacity(), (count - valid) * RECORD_BYTES));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, at + buffer.position()) < 0) return valid;
+            }
+            for (int i = 0; i < buffer.limit(); i += RECORD_BYTES) {
+                if (!checksumOk(buffer, i, crc)) return valid;
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    void matchStart(MatchState match, int difficulty) {
+        append(MATCH_START, difficulty, match, difficulty);
+    }
+
+    // Logs the move and, if it ended the round, the round's result
+    void move(MatchState match, int difficulty, int pos) {
+        append(MOVE, pos, match, difficulty);
+        int result = match.engine().result();
+        if (result != GameEngine.IN_PROGRESS) append(ROUND_END, result, match, difficulty);
+    }
+
+    void matchEnd(MatchState match, int difficulty) {
+        append(MATCH_END, match.champion(), match, difficulty);
+    }
+
+    long dropped() {
+        return dropped;
+    }
+
+    long written() {
+        return written;
+    }
+
+    long syncs() {
+        return syncs;
+    }
+
+    // Never blocks: the caller is usually the EDT
+    private void append(int type, int arg, MatchState match, int difficulty) {
+        if (closed) return;
+        long[] record = {(long) type << 8 | arg, MatchCodec.encode(match, difficulty), System.currentTimeMillis()};
+        if (!queue.offer(record)) dropped++;
+    }
+
+    // Writes everything queued so far and syncs it, waiting at most timeoutMillis.
+    // The writer is told to stop with a marker record, never an interrupt,
+    // since an interrupt would close the FileChannel mid-write.
+    void close(long timeoutMillis) {
+        closed = true;
+        try {
+            if (queue.offer(CLOSE, timeoutMillis, TimeUnit.MILLISECONDS)) writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        channel = openChannel(path);
+        if (channel == null) {
+            closed = true;
+            queue.clear();
+            return;
+        }
+        List<long[]> batch = new ArrayList<>(BATCH);
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH * RECORD_BYTES);
+        CRC32 crc = new CRC32();
+        boolean done = false;
+        try {
+            while (!done) {
+                batch.add(queue.take());
+                // Group commit: everything that queued during the last sync goes in this one
+                queue.drainTo(batch, BATCH - 1);
+                buffer.clear();
+                int records = 0;
+                for (long[] record : batch) {
+                    if (record == CLOSE) {
+                        done = true;
+                    } else {
+                        encode(buffer, crc, record);
+                        records++;
+                    }
+                }
+                batch.clear();
+                if (records == 0) continue;
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(false);
+                written += records;
+                syncs++;
+            }
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Match log stopped: " + e.getMessage());
+            // Nothing will drain the queue any more, so stop filling it and
+            // let close() return without waiting out its timeout
+            closed = true;
+            queue.clear();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void encode(ByteBuffer buffer, CRC32 crc, long[] record) {
+        int at = buffer.position();
+        buffer.put((byte) (record[0] >>> 8)).put((byte) record[0]).putShort((short) 0)
+            .putInt((int) record[1]).putLong(record[2]);
+        buffer.putShort(at + 2, (short) checksum(buffer, at, crc));
+    }
+
+    // CRC32 of the record with its checksum bytes skipped
+    static int checksum(ByteBuffer buffer, int at, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.get(at));
+        crc.update(buffer.get(at + 1));
+        for (int i = 4; i < RECORD_BYTES; i++) crc.update(buffer.get(at + i));
+        return (int) crc.getValue() & 0xFFFF;
+    }
+
+    static boolean checksumOk(ByteBuffer buffer, int at, CRC32 crc) {
+        return (buffer.getShort(at + 2) & 0xFFFF) == checksum(buffer, at, crc);
+    }
+}
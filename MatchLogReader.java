@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+// Replay and statistics over a MatchLog file, read through a memory map so
+// scanning a long history is a walk over mapped pages with no parsing
+// objects. Stops at the first record whose checksum fails (a torn tail).
+//
+//   java MatchLogReader [path] [--replay]
+final class MatchLogReader {
+    private static final String[] DIFFICULTIES = {"Human", "Easy", "Medium", "Hard", "Search", "MCTS", "", ""};
+
+    private final MappedByteBuffer map;
+    private final int records;
+    private final CRC32 crc = new CRC32();
+
+    MatchLogReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MatchLog.HEADER_BYTES) throw new IOException(path + " is not a match log");
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        for (int i = 0; i < MatchLog.MAGIC.length; i++) {
+            if (map.get(i) != MatchLog.MAGIC[i]) throw new IOException(path + " is not a match log");
+        }
+        int count = (map.capacity() - MatchLog.HEADER_BYTES) / MatchLog.RECORD_BYTES;
+        int valid = 0;
+        while (valid < count && MatchLog.checksumOk(map, offset(valid), crc)) valid++;
+        records = valid;
+    }
+
+    int records() {
+        return records;
+    }
+
+    int type(int record) {
+        return map.get(offset(record));
+    }
+
+    int arg(int record) {
+        return map.get(offset(record) + 1);
+    }
+
+    int state(int record) {
+        return map.getInt(offset(record) + 4);
+    }
+
+    long time(int record) {
+        return map.getLong(offset(record) + 8);
+    }
+
+    private static int offset(int record) {
+        return MatchLog.HEADER_BYTES + record * MatchLog.RECORD_BYTES;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path path = MatchLog.defaultPath();
+        boolean replay = false;
+        for (String arg : args) {
+            if (arg.equals("--replay")) replay = true;
+            else path = Path.of(arg);
+        }
+        MatchLogReader log = new MatchLogReader(path);
+
+        // [difficulty][result]: rounds won by player one, by player two, drawn
+        long[][] rounds = new long[8][4];
+        long[] firstMoves = new long[10];
+        long matches = 0, finished = 0, moves = 0;
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < log.records(); i++) {
+            int state = log.state(i), difficulty = MatchCodec.difficulty(state);
+            switch (log.type(i)) {
+                case MatchLog.MATCH_START:
+                    matches++;
+                    if (replay) {
+                        int roundsToWin = MatchCodec.roundsToWin(state);
+                        System.out.println("Match " + matches + " - " + DIFFICULTIES[difficulty]
+                            + ", best of " + (2 * roundsToWin - 1) + ", " + Instant.ofEpochMilli(log.time(i)));
+                    }
+                    break;
+                case MatchLog.MOVE:
+                    moves++;
+                    int pos = log.arg(i);
+                    boolean byPlayerOne = (state & Board.bit(pos)) != 0;
+                    if (Integer.bitCount(state & (Board.ALL | Board.ALL << Board.SQUARES)) == 1) firstMoves[pos]++;
+                    if (replay) line.append(byPlayerOne ? 'X' : 'O').append(pos).append(' ');
+                    break;
+                case MatchLog.ROUND_END:
+                    int result = log.arg(i);
+                    rounds[difficulty][result]++;
+                    if (replay) {
+                        String outcome = result == GameEngine.DRAW ? "draw" : (result == GameEngine.PLAYER_ONE_WINS ? "X wins" : "O wins");
+                        System.out.println("  " + line + "-> " + outcome);
+                        line.setLength(0);
+                    }
+                    break;
+                case MatchLog.MATCH_END:
+                    finished++;
+                    if (replay) {
+                        System.out.println("  Series to " + (log.arg(i) == GameEngine.PLAYER_ONE_WINS ? "player 1" : "player 2"));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        System.out.println(log.records() + " records: " + matches + " matches (" + finished + " finished), " + moves + " moves");
+        for (int d = 0; d < DIFFICULTIES.length; d++) {
+            long total = rounds[d][1] + rounds[d][2] + rounds[d][3];
+            if (total == 0) continue;
+            System.out.printf("  %-7s %d rounds: player 1 won %d, player 2 won %d, drawn %d%n",
+                DIFFICULTIES[d], total, rounds[d][1], rounds[d][2], rounds[d][3]);
+        }
+        int favourite = 1;
+        for (int pos = 2; pos <= 9; pos++) {
+            if (firstMoves[pos] > firstMoves[favourite]) favourite = pos;
+        }
+        if (firstMoves[favourite] > 0) {
+            System.out.println("  Most common opening square: " + favourite + " (" + firstMoves[favourite] + " rounds)");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// One best-of-N series: the current round plus the running score. Same
+// rules as the Swing game - the first side to win roundsToWin rounds takes
+// the match and drawn rounds score nothing. Who starts each round is the
+// caller's choice, since XandO and the server pick it differently.
+final class MatchState {
+    private final GameEngine engine = new GameEngine();
+    private int roundsToWin;
+    private int p1Wins, p2Wins;
+
+    MatchState(int roundsToWin) {
+        this.roundsToWin = roundsToWin;
+    }
+
+    // Clears the score and starts round one
+    void newMatch(int roundsToWin, boolean playerOneFirst) {
+        this.roundsToWin = roundsToWin;
+        p1Wins = 0;
+        p2Wins = 0;
+        engine.reset(playerOneFirst);
+    }
+
+    void nextRound(boolean playerOneFirst) {
+        engine.reset(playerOneFirst);
+    }
+
+    // Overwrites the whole match, e.g. from MatchCodec.decode
+    void restore(int playerOne, int playerTwo, boolean playerOneToMove, int p1Wins, int p2Wins, int roundsToWin) {
+        engine.load(playerOne, playerTwo, playerOneToMove);
+        this.p1Wins = p1Wins;
+        this.p2Wins = p2Wins;
+        this.roundsToWin = roundsToWin;
+    }
+
+    // Plays for the side to move and scores the round if the move ends it
+    boolean applyMove(int pos) {
+        if (!engine.applyMove(pos)) return false;
+        int result = engine.result();
+        if (result == GameEngine.PLAYER_ONE_WINS) p1Wins++;
+        else if (result == GameEngine.PLAYER_TWO_WINS) p2Wins++;
+        return true;
+    }
+
+    GameEngine engine() {
+        return engine;
+    }
+
+    int roundsToWin() {
+        return roundsToWin;
+    }
+
+    int p1Wins() {
+        return p1Wins;
+    }
+
+    int p2Wins() {
+        return p2Wins;
+    }
+
+    boolean isRoundOver() {
+        return engine.result() != GameEngine.IN_PROGRESS;
+    }
+
+    boolean isOver() {
+        return p1Wins == roundsToWin || p2Wins == roundsToWin;
+    }
+
+    // PLAYER_ONE_WINS or PLAYER_TWO_WINS once the match is over, else IN_PROGRESS
+    int champion() {
+        if (p1Wins == roundsToWin) return GameEngine.PLAYER_ONE_WINS;
+        if (p2Wins == roundsToWin) return GameEngine.PLAYER_TWO_WINS;
+        return GameEngine.IN_PROGRESS;
+    }
+}
@@ -0,0 +1,203 @@
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+// Process-wide counters and latency histograms for the AI and the UI, off
+// unless the JVM is started with -Dxando.metrics=true. Every call site is
+// guarded by the ENABLED constant, so when it is false the JIT folds the
+// branch away and the hot paths pay nothing; when it is true a recording is
+// one or two atomic increments.
+//
+// Enabled, the numbers are exposed over JMX (xando:type=Metrics, e.g. in
+// jconsole) and printed to stderr every -Dxando.metrics.dump seconds
+// (default 60, 0 turns the dump off).
+final class Metrics {
+    static final boolean ENABLED = Boolean.getBoolean("xando.metrics");
+
+    static final int STRATEGIES = 12;
+    private static final String[] DIFFICULTIES = {"", "Easy", "Medium", "Hard", "Search", "MCTS", "", ""};
+    private static final long EDT_PING_MILLIS = 100;
+    private static final long EDT_STALL_NANOS = 100_000_000L;
+
+    // Histograms are only allocated when enabled
+    private static final LatencyHistogram[] AI_MOVE_NANOS = new LatencyHistogram[DIFFICULTIES.length];
+    private static final LatencyHistogram ALL_AI_MOVES = ENABLED ? new LatencyHistogram() : null;
+    private static final LatencyHistogram EDT_DELAY_NANOS = ENABLED ? new LatencyHistogram() : null;
+    private static final AtomicLongArray STRATEGY_COUNTS = new AtomicLongArray(STRATEGIES + 1);
+    private static final AtomicLong EDT_STALLS = new AtomicLong();
+    private static final AtomicLong SOUND_DROPPED = new AtomicLong();
+    private static final AtomicLong SOUND_SKIPPED = new AtomicLong();
+    private static volatile IntSupplier soundQueue = () -> 0;
+    private static final AtomicBoolean WATCHING_EDT = new AtomicBoolean();
+
+    static {
+        if (ENABLED) {
+            for (int i = 0; i < AI_MOVE_NANOS.length; i++) AI_MOVE_NANOS[i] = new LatencyHistogram();
+            start();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static void start() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName("xando:type=Metrics"));
+        } catch (Exception e) {
+            System.err.println("Metrics not registered with JMX: " + e.getMessage());
+        }
+        long dumpSeconds = Long.getLong("xando.metrics.dump", 60);
+        if (dumpSeconds > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> System.err.print(report()), dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // Time spent inside AIPlayer.getAIMove, on the AI thread
+    static void aiMove(int difficulty, long nanos) {
+        AI_MOVE_NANOS[difficulty & 7].record(nanos);
+        ALL_AI_MOVES.record(nanos);
+    }
+
+    // Which numbered strategy of getUnbeatableMove picked the move
+    static void strategy(int strategy) {
+        STRATEGY_COUNTS.incrementAndGet(strategy);
+    }
+
+    // A cue that did not fit in the sound queue
+    static void soundDropped() {
+        SOUND_DROPPED.incrementAndGet();
+    }
+
+    // A cue that waited too long and was never played
+    static void soundSkipped() {
+        SOUND_SKIPPED.incrementAndGet();
+    }
+
+    static void watchSound(IntSupplier queueDepth) {
+        soundQueue = queueDepth;
+    }
+
+    // Posts a no-op to the EDT every 100 ms and records how late it runs.
+    // Only one ping is outstanding at a time, so a blocked EDT shows up as a
+    // single long delay rather than a pile of queued pings.
+    static void watchEventQueue() {
+        if (!WATCHING_EDT.compareAndSet(false, true)) return;
+        Thread watchdog = new Thread(() -> {
+            AtomicBoolean pending = new AtomicBoolean();
+            while (true) {
+                if (pending.compareAndSet(false, true)) {
+                    long posted = System.nanoTime();
+                    SwingUtilities.invokeLater(() -> {
+                        long delay = System.nanoTime() - posted;
+                        EDT_DELAY_NANOS.record(delay);
+                        if (delay >= EDT_STALL_NANOS) EDT_STALLS.incrementAndGet();
+                        pending.set(false);
+                    });
+                }
+                try {
+                    Thread.sleep(EDT_PING_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    static String report() {
+        if (!ENABLED) return "Metrics are off; start with -Dxando.metrics=true\n";
+        StringBuilder out = new StringBuilder("--- X & O metrics ---\n");
+        for (int d = 1; d < AI_MOVE_NANOS.length; d++) {
+            LatencyHistogram histogram = AI_MOVE_NANOS[d];
+            if (histogram.count() == 0) continue;
+            out.append(String.format(Locale.ROOT, "AI %-7s %7d moves  p50 %8.1f us  p99 %8.1f us  max %8.1f us%n",
+                DIFFICULTIES[d], histogram.count(), histogram.percentile(50) / 1e3,
+                histogram.percentile(99) / 1e3, histogram.max() / 1e3));
+        }
+        out.append("Strategies:");
+        for (int s = 1; s <= STRATEGIES; s++) out.append(' ').append(s).append('=').append(STRATEGY_COUNTS.get(s));
+        out.append('\n');
+        out.append(String.format(Locale.ROOT, "EDT       p99 delay %.1f ms  max %.1f ms  stalls %d%n",
+            EDT_DELAY_NANOS.percentile(99) / 1e6, EDT_DELAY_NANOS.max() / 1e6, EDT_STALLS.get()));
+        out.append(String.format(Locale.ROOT, "Sound     queue %d  dropped %d  skipped %d%n",
+            soundQueue.getAsInt(), SOUND_DROPPED.get(), SOUND_SKIPPED.get()));
+        return out.toString();
+    }
+
+    static void reset() {
+        if (!ENABLED) return;
+        for (LatencyHistogram histogram : AI_MOVE_NANOS) histogram.reset();
+        ALL_AI_MOVES.reset();
+        for (int s = 0; s <= STRATEGIES; s++) STRATEGY_COUNTS.set(s, 0);
+        EDT_DELAY_NANOS.reset();
+        EDT_STALLS.set(0);
+        SOUND_DROPPED.set(0);
+        SOUND_SKIPPED.set(0);
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        public long getAIMoves() {
+            return ALL_AI_MOVES.count();
+        }
+
+        public long getAIMoveP50Micros() {
+            return ALL_AI_MOVES.percentile(50) / 1000;
+        }
+
+        public long getAIMoveP99Micros() {
+            return ALL_AI_MOVES.percentile(99) / 1000;
+        }
+
+        public long getAIMoveMaxMicros() {
+            return ALL_AI_MOVES.max() / 1000;
+        }
+
+        public long[] getStrategyCounts() {
+            long[] counts = new long[STRATEGIES + 1];
+            for (int s = 0; s <= STRATEGIES; s++) counts[s] = STRATEGY_COUNTS.get(s);
+            return counts;
+        }
+
+        public int getSoundQueueDepth() {
+            return soundQueue.getAsInt();
+        }
+
+        public long getSoundCuesDropped() {
+            return SOUND_DROPPED.get();
+        }
+
+        public long getSoundCuesSkipped() {
+            return SOUND_SKIPPED.get();
+        }
+
+        public long getEdtStalls() {
+            return EDT_STALLS.get();
+        }
+
+        public long getEdtMaxDelayMillis() {
+            return EDT_DELAY_NANOS.max() / 1_000_000;
+        }
+
+        public String getReport() {
+            return report();
+        }
+
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
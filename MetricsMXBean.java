@@ -0,0 +1,28 @@
+// JMX view of Metrics, registered as xando:type=Metrics when -Dxando.metrics
+// is set. MXBean interfaces have to be public.
+public interface MetricsMXBean {
+    long getAIMoves();
+
+    long getAIMoveP50Micros();
+
+    long getAIMoveP99Micros();
+
+    long getAIMoveMaxMicros();
+
+    // Index n counts how often getUnbeatableMove returned from strategy n
+    long[] getStrategyCounts();
+
+    int getSoundQueueDepth();
+
+    long getSoundCuesDropped();
+
+    long getSoundCuesSkipped();
+
+    long getEdtStalls();
+
+    long getEdtMaxDelayMillis();
+
+    String getReport();
+
+    void reset();
+}
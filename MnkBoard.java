@@ -0,0 +1,234 @@
+// Generalized rows x cols board where k in a row wins (3,3,3 is classic
+// X and O, 15,15,5 is five-in-a-row). Every length-k segment is a "window"
+// with a stone counter per player; make/unmake only touch the windows
+// through the played cell, so win detection is O(k) on any board size.
+final class MnkBoard {
+    static final int EMPTY = 0, PLAYER_ONE = 1, PLAYER_TWO = 2;
+    static final int NO_WINNER = 0;
+
+    // Direction steps: horizontal, vertical, diagonal, anti-diagonal
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    final int rows, cols, k;
+    private final byte[] cells;
+    private final int[][] windowCells;      // cells of each window
+    private final int[][] cellWindows;      // windows through each cell
+    private final int[][] windowCounts;     // [player - 1][window]
+    private final long[][] zobrist;         // [player - 1][cell]
+    private final long sideKey;
+    private long hash;
+    private final int[] moves;
+    private int moveCount;
+    private int sideToMove = PLAYER_ONE;
+    private int winner = NO_WINNER;
+
+    MnkBoard(int rows, int cols, int k) {
+        if (rows < 1 || cols < 1 || k < 1 || (k > rows && k > cols)) {
+            throw new IllegalArgumentException("No line of " + k + " fits on a " + rows + "x" + cols + " board");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        cells = new byte[rows * cols];
+        moves = new int[rows * cols];
+
+        // Fixed seed per board shape, so hashes agree across board instances
+        // and a transposition table can be reused from move to move
+        java.util.SplittableRandom random = new java.util.SplittableRandom(0x5851F42D4C957F2DL ^ (rows * 1_000_003L + cols));
+        zobrist = new long[2][rows * cols];
+        for (long[] keys : zobrist) {
+            for (int i = 0; i < keys.length; i++) keys[i] = random.nextLong();
+        }
+        sideKey = random.nextLong();
+
+        java.util.List<int[]> windows = new java.util.ArrayList<>();
+        for (int[] dir : DIRECTIONS) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int endRow = row + dir[0] * (k - 1), endCol = col + dir[1] * (k - 1);
+                    if (endRow < 0 || endRow >= rows || endCol < 0 || endCol >= cols) continue;
+                    int[] window = new int[k];
+                    for (int i = 0; i < k; i++) {
+                        window[i] = (row + dir[0] * i) * cols + col + dir[1] * i;
+                    }
+                    windows.add(window);
+                }
+            }
+        }
+        windowCells = windows.toArray(new int[0][]);
+        windowCounts = new int[2][windowCells.length];
+
+        int[] perCell = new int[cells.length];
+        for (int[] window : windowCells) {
+            for (int cell : window) perCell[cell]++;
+        }
+        cellWindows = new int[cells.length][];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cellWindows[cell] = new int[perCell[cell]];
+            perCell[cell] = 0;
+        }
+        for (int w = 0; w < windowCells.length; w++) {
+            for (int cell : windowCells[w]) cellWindows[cell][perCell[cell]++] = w;
+        }
+    }
+
+    // Independent copy for another search thread; the window layout and
+    // Zobrist keys are immutable and shared
+    private MnkBoard(MnkBoard other) {
+        rows = other.rows;
+        cols = other.cols;
+        k = other.k;
+        cells = other.cells.clone();
+        windowCells = other.windowCells;
+        cellWindows = other.cellWindows;
+        windowCounts = new int[][] {other.windowCounts[0].clone(), other.windowCounts[1].clone()};
+        zobrist = other.zobrist;
+        sideKey = other.sideKey;
+        hash = other.hash;
+        moves = other.moves.clone();
+        moveCount = other.moveCount;
+        sideToMove = other.sideToMove;
+        winner = other.winner;
+    }
+
+    MnkBoard copy() {
+        return new MnkBoard(this);
+    }
+
+    // Copy of an unfinished 3x3 GameEngine position (cell index = square - 1),
+    // for running the general engines on the classic game
+    static MnkBoard fromEngine(GameEngine engine) {
+        MnkBoard board = new MnkBoard(3, 3, 3);
+        int one = engine.playerOne(), two = engine.playerTwo();
+        int oneCount = Integer.bitCount(one), twoCount = Integer.bitCount(two);
+        boolean oneStarts = oneCount == twoCount ? engine.isPlayerOneToMove() : oneCount > twoCount;
+        // Replay the stones alternately; order within a side does not matter
+        board.sideToMove = oneStarts ? PLAYER_ONE : PLAYER_TWO;
+        if (!oneStarts) board.hash ^= board.sideKey;
+        while ((one | two) != 0) {
+            int own = board.sideToMove == PLAYER_ONE ? one : two;
+            int bit = own & -own;
+            if (board.sideToMove == PLAYER_ONE) one &= ~bit;
+            else two &= ~bit;
+            board.make(Integer.numberOfTrailingZeros(bit));
+        }
+        return board;
+    }
+
+    // Hands the first move of an empty board to player two (or back)
+    void setFirstMover(int player) {
+        if (moveCount != 0) throw new IllegalStateException("Game already started");
+        if (player != sideToMove) hash ^= sideKey;
+        sideToMove = player;
+    }
+
+    int size() {
+        return cells.length;
+    }
+
+    int cell(int index) {
+        return cells[index];
+    }
+
+    int cell(int row, int col) {
+        return cells[row * cols + col];
+    }
+
+    boolean isEmpty(int index) {
+        return cells[index] == EMPTY;
+    }
+
+    int sideToMove() {
+        return sideToMove;
+    }
+
+    // Zobrist hash of the stones, with sideKey mixed in while player two is
+    // to move; maintained incrementally on make/unmake
+    long hash() {
+        return hash;
+    }
+
+    int winner() {
+        return winner;
+    }
+
+    int moveCount() {
+        return moveCount;
+    }
+
+    int lastMove() {
+        return moveCount == 0 ? -1 : moves[moveCount - 1];
+    }
+
+    boolean isFull() {
+        return moveCount == cells.length;
+    }
+
+    boolean isGameOver() {
+        return winner != NO_WINNER || moveCount == cells.length;
+    }
+
+    // Plays a stone for the side to move and reports whether it won
+    boolean make(int index) {
+        if (cells[index] != EMPTY || winner != NO_WINNER) {
+            throw new IllegalStateException("Illegal move " + index);
+        }
+        int player = sideToMove;
+        int[] counts = windowCounts[player - 1];
+        cells[index] = (byte) player;
+        moves[moveCount++] = index;
+        hash ^= zobrist[player - 1][index] ^ sideKey;
+        for (int w : cellWindows[index]) {
+            if (++counts[w] == k) winner = player;
+        }
+        sideToMove = PLAYER_ONE + PLAYER_TWO - player;
+        return winner == player;
+    }
+
+    void unmake() {
+        int index = moves[--moveCount];
+        int player = cells[index];
+        int[] counts = windowCounts[player - 1];
+        for (int w : cellWindows[index]) counts[w]--;
+        cells[index] = EMPTY;
+        hash ^= zobrist[player - 1][index] ^ sideKey;
+        // The game stops at the first win, so it can only have come from this move
+        winner = NO_WINNER;
+        sideToMove = player;
+    }
+
+    // Writes the empty cells into buffer and returns how many there are
+    int legalMoves(int[] buffer) {
+        if (winner != NO_WINNER) return 0;
+        int n = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == EMPTY) buffer[n++] = i;
+        }
+        return n;
+    }
+
+    // A cell that completes a line for player right now, or -1
+    int winningMove(int player) {
+        int[] own = windowCounts[player - 1], other = windowCounts[2 - player];
+        for (int w = 0; w < windowCells.length; w++) {
+            if (own[w] == k - 1 && other[w] == 0) {
+                for (int cell : windowCells[w]) {
+                    if (cells[cell] == EMPTY) return cell;
+                }
+            }
+        }
+        return -1;
+    }
+
+    int windowCount() {
+        return windowCells.length;
+    }
+
+    int[] windowsThrough(int index) {
+        return cellWindows[index];
+    }
+
+    int stonesInWindow(int player, int window) {
+        return windowCounts[player - 1][window];
+    }
+}
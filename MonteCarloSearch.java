@@ -0,0 +1,192 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Monte Carlo tree search (UCT) over an MnkBoard within a wall-clock budget,
+// for boards where an exhaustive search is out of reach. The tree and UCT
+// itself are the UctTree shared with UltimateSearch; this class adds what is
+// particular to an MnkBoard. Playouts make and unmake random moves on one
+// working board drawn from a swap-remove list of empty cells, so an
+// iteration allocates nothing.
+//
+// The tree is kept between calls: when the next position follows from the
+// last root by a move or two, the matching grandchild becomes the new root
+// with its statistics intact. It is rebuilt from scratch when the positions
+// do not connect or the pool is more than half used up.
+//
+// On boards over 25 cells the tree only branches into cells within two of a
+// stone, and the root always takes an immediate win or blocks one, so the
+// budget goes into the part of the board that matters.
+final class MonteCarloSearch {
+    private static final int TIME_CHECK_MASK = 63;
+    private static final int NEIGHBOURHOOD = 2;
+    private static final int NEIGHBOURHOOD_MIN_CELLS = 26;
+
+    // Outcome of one search call; bestMove is a cell index, value the share
+    // of its playouts the mover won (draws count half)
+    static final class Result {
+        final int bestMove;
+        final long playouts;
+        final int nodes;
+        final double value;
+
+        Result(int bestMove, long playouts, int nodes, double value) {
+            this.bestMove = bestMove;
+            this.playouts = playouts;
+            this.nodes = nodes;
+            this.value = value;
+        }
+    }
+
+    private final UctTree tree;
+    private int root = -1;
+    private final SplittableRandom random;
+    private volatile boolean aborted;
+    private MnkBoard rootBoard;     // position at the root, for reuse checks
+    private MnkBoard board;         // working board, always back at the root between iterations
+    private int[] path;
+    private int[] empties;
+    private boolean[] candidate;
+
+    MonteCarloSearch(int maxNodes, long seed) {
+        this(maxNodes, UctTree.DEFAULT_EXPLORATION, seed);
+    }
+
+    MonteCarloSearch(int maxNodes, double exploration, long seed) {
+        tree = new UctTree(maxNodes, exploration);
+        random = new SplittableRandom(seed);
+    }
+
+    // Makes the search in progress, and any started before clearAbort(),
+    // stop at its next time check and return its best move so far
+    void abort() {
+        aborted = true;
+    }
+
+    void clearAbort() {
+        aborted = false;
+    }
+
+    Result search(MnkBoard position, long timeMillis) {
+        return search(position, timeMillis, Long.MAX_VALUE);
+    }
+
+    // Searches until the budget or the playout cap runs out; bestMove is -1
+    // if the game is already over
+    Result search(MnkBoard position, long timeMillis, long maxPlayouts) {
+        if (position.isGameOver()) return new Result(-1, 0, 0, 0);
+        int side = position.sideToMove();
+        int forced = position.winningMove(side);
+        if (forced != -1) return new Result(forced, 0, 0, 1);
+        forced = position.winningMove(MnkBoard.PLAYER_ONE + MnkBoard.PLAYER_TWO - side);
+        if (forced != -1) return new Result(forced, 0, 0, 0);
+
+        reuseOrReset(position);
+        long deadline = System.nanoTime() + timeMillis * 1_000_000L;
+        long playouts = 0;
+        while (playouts < maxPlayouts) {
+            iterate();
+            playouts++;
+            if ((playouts & TIME_CHECK_MASK) == 0 && (aborted || System.nanoTime() >= deadline)) break;
+        }
+
+        int best = tree.mostVisitedChild(root);
+        return new Result(tree.move(best), playouts, tree.nodeCount(), tree.value(best));
+    }
+
+    // Moves the root down to position if the tree already holds it
+    private void reuseOrReset(MnkBoard position) {
+        int node = root != -1 && tree.nodeCount() <= tree.capacity() / 2 ? descendTo(position) : -1;
+        root = node != -1 ? node : tree.reset();
+        if (board == null || board.size() != position.size()) {
+            path = new int[position.size() + 1];
+            empties = new int[position.size()];
+            candidate = new boolean[position.size()];
+        }
+        rootBoard = position.copy();
+        board = position.copy();
+    }
+
+    // The node for position, reached from the root by at most one move per
+    // side, or -1
+    private int descendTo(MnkBoard position) {
+        if (rootBoard.rows != position.rows || rootBoard.cols != position.cols || rootBoard.k != position.k) return -1;
+        int played = position.moveCount() - rootBoard.moveCount();
+        if (played < 0 || played > 2) return -1;
+        int mover = rootBoard.sideToMove(), ours = -1, theirs = -1;
+        for (int cell = 0; cell < position.size(); cell++) {
+            int before = rootBoard.cell(cell), after = position.cell(cell);
+            if (before == after) continue;
+            if (before != MnkBoard.EMPTY) return -1;
+            if (after == mover && ours == -1) ours = cell;
+            else if (after != mover && theirs == -1) theirs = cell;
+            else return -1;
+        }
+        int node = root;
+        if (ours != -1) node = tree.child(node, ours);
+        if (theirs != -1 && node != -1) node = ours == -1 ? -1 : tree.child(node, theirs);
+        return node;
+    }
+
+    // Select down the tree, expand one leaf, play it out, back the result up
+    // and unmake every move again
+    private void iterate() {
+        int rootSide = board.sideToMove();
+        int node = root, depth = 0;
+        path[0] = root;
+        while (!tree.isLeaf(node)) {
+            node = tree.select(node);
+            board.make(tree.move(node));
+            path[++depth] = node;
+        }
+        if (!board.isGameOver() && (node == root || tree.visits(node) > 0) && tree.expand(node, empties, candidates())) {
+            node = tree.randomChild(node, random);
+            board.make(tree.move(node));
+            path[++depth] = node;
+        }
+        int made = playout();
+        int winner = board.winner();
+        for (int i = 0; i < made + depth; i++) board.unmake();
+
+        tree.backup(path, depth, winner == MnkBoard.NO_WINNER ? 1 : winner == rootSide ? 2 : 0);
+    }
+
+    // Fills empties with the moves worth a node: every empty cell on small
+    // boards, else the empty cells near a stone (the center on an empty board)
+    private int candidates() {
+        int size = board.size();
+        if (size < NEIGHBOURHOOD_MIN_CELLS) return board.legalMoves(empties);
+        if (board.moveCount() == 0) {
+            empties[0] = board.rows / 2 * board.cols + board.cols / 2;
+            return 1;
+        }
+        Arrays.fill(candidate, false);
+        for (int cell = 0; cell < size; cell++) {
+            if (board.isEmpty(cell)) continue;
+            int row = cell / board.cols, col = cell % board.cols;
+            for (int r = Math.max(0, row - NEIGHBOURHOOD); r <= Math.min(board.rows - 1, row + NEIGHBOURHOOD); r++) {
+                for (int c = Math.max(0, col - NEIGHBOURHOOD); c <= Math.min(board.cols - 1, col + NEIGHBOURHOOD); c++) {
+                    candidate[r * board.cols + c] = true;
+                }
+            }
+        }
+        int count = 0;
+        for (int cell = 0; cell < size; cell++) {
+            if (candidate[cell] && board.isEmpty(cell)) empties[count++] = cell;
+        }
+        return count;
+    }
+
+    // Random moves to the end of the game; returns how many were made
+    private int playout() {
+        if (board.isGameOver()) return 0;
+        int free = board.legalMoves(empties), made = 0;
+        while (!board.isGameOver()) {
+            int i = random.nextInt(free);
+            int cell = empties[i];
+            empties[i] = empties[--free];
+            board.make(cell);
+            made++;
+        }
+        return made;
+    }
+}
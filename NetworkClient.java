@@ -0,0 +1,62 @@
+import javax.swing.SwingUtilities;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// Thin-client side of the GameServer line protocol. One daemon thread reads
+// server messages and hands each line to the EDT; sends are small writes
+// made straight from the EDT. A dropped connection is reported as "LEFT".
+final class NetworkClient {
+    private final Socket socket;
+    private final OutputStream out;
+
+    NetworkClient(String host, int port, Consumer<String> onMessage) throws IOException {
+        socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), 5000);
+        socket.setTcpNoDelay(true);
+        out = socket.getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Thread reader = new Thread(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String message = line;
+                    SwingUtilities.invokeLater(() -> onMessage.accept(message));
+                }
+            } catch (IOException ignored) {
+                // Closed locally or by the server
+            }
+            if (!socket.isClosed()) SwingUtilities.invokeLater(() -> onMessage.accept("LEFT"));
+        }, "net-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    // Parses "host:port", defaulting to the server's standard port
+    static NetworkClient connect(String address, Consumer<String> onMessage) throws IOException {
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) return new NetworkClient(address, GameServer.DEFAULT_PORT, onMessage);
+        return new NetworkClient(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)), onMessage);
+    }
+
+    void send(String line) {
+        try {
+            out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Network error: " + e.getMessage());
+        }
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
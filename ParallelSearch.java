@@ -0,0 +1,84 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Lazy SMP on top of AlphaBetaSearch: every thread searches its own copy of
+// the position and they cooperate only through the shared, lock-free
+// transposition table. The main searcher's answer is returned; helpers are
+// aborted as soon as it finishes, so the caller only ever sees one move.
+final class ParallelSearch {
+    private final ForkJoinPool pool;
+    private final int threads;
+    private PositionBook book;
+    private volatile boolean aborted;
+    private volatile AlphaBetaSearch[] running;
+
+    ParallelSearch(int threads) {
+        this.threads = Math.max(1, threads);
+        pool = new ForkJoinPool(this.threads);
+    }
+
+    int threads() {
+        return threads;
+    }
+
+    void setBook(PositionBook book) {
+        this.book = book;
+    }
+
+    // Stops the search in progress, and any started before clearAbort(), at
+    // the next time check; the main searcher still returns its best move
+    void abort() {
+        aborted = true;
+        AlphaBetaSearch[] searchers = running;
+        if (searchers != null) {
+            for (AlphaBetaSearch searcher : searchers) searcher.abort();
+        }
+    }
+
+    void clearAbort() {
+        aborted = false;
+    }
+
+    AlphaBetaSearch.Result search(MnkBoard board, TranspositionTable table, long timeMillis, int maxDepth) {
+        AlphaBetaSearch[] searchers = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new AlphaBetaSearch(board.copy(), table);
+            searchers[i].setHelper(i);
+            searchers[i].setBook(book);
+        }
+        // Published before the flag is read, so an abort() racing with this
+        // call reaches the searchers one way or the other
+        running = searchers;
+        if (aborted) {
+            for (AlphaBetaSearch searcher : searchers) searcher.abort();
+        }
+
+        List<ForkJoinTask<AlphaBetaSearch.Result>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            AlphaBetaSearch helper = searchers[i];
+            helpers.add(pool.submit(() -> helper.search(timeMillis, maxDepth)));
+        }
+        AlphaBetaSearch.Result main;
+        try {
+            main = pool.submit(() -> searchers[0].search(timeMillis, maxDepth)).join();
+        } finally {
+            running = null;
+            for (int i = 1; i < threads; i++) searchers[i].abort();
+        }
+
+        // Report the work of every thread so nodes/second reflects the whole pool
+        long nodes = main.nodes, tableHits = main.tableHits;
+        for (ForkJoinTask<AlphaBetaSearch.Result> helper : helpers) {
+            AlphaBetaSearch.Result result = helper.join();
+            nodes += result.nodes;
+            tableHits += result.tableHits;
+        }
+        return new AlphaBetaSearch.Result(main.bestMove, main.score, main.depth, nodes, tableHits);
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
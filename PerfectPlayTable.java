@@ -0,0 +1,103 @@
+// Minimax value and best move for every reachable 3x3 position, solved once
+// on first use. Positions are stored by their symmetry-canonical form, so the
+// table holds roughly an eighth of the raw state count and a lookup is eight
+// mask transforms plus one cache probe.
+final class PerfectPlayTable {
+    // Tie-break between equally good moves: corners, center, then edges
+    private static final int[] MOVE_ORDER = {1, 3, 7, 9, 5, 2, 4, 6, 8};
+
+    // Entries pack (score << 8) | best move, where the move is in the
+    // canonical frame (0 once the round is over). Scores are from the
+    // mover's view: empties + 1 for a win, so faster wins and slower losses
+    // rank higher, 0 for a draw. Sized so the solved set never evicts: at
+    // under a fifth full, no probe run reaches PositionCache's cap.
+    private static final int POSITIONS = 1530;
+    private final PositionCache entries = new PositionCache(8192);
+
+    private static final class Holder {
+        static final PerfectPlayTable INSTANCE = new PerfectPlayTable();
+    }
+
+    static PerfectPlayTable instance() {
+        return Holder.INSTANCE;
+    }
+
+    private PerfectPlayTable() {
+        solve(0, 0, true);
+        solve(0, 0, false);
+        // Lookups never write, so the table can be shared by any number of
+        // threads; that only holds if every solved position was kept
+        if (entries.size() != POSITIONS) {
+            throw new IllegalStateException("Solved " + entries.size() + " positions, expected " + POSITIONS);
+        }
+    }
+
+    // Best square (1-9) for the side to move, or -1 if the round is over
+    int bestMove(int playerOne, int playerTwo, boolean playerOneToMove) {
+        long canonical = Symmetry.canonicalize(playerOne, playerTwo, playerOneToMove);
+        int move = lookup(canonical) & 0xFF;
+        return move == 0 ? -1 : Symmetry.untransformSquare(move, Symmetry.transform(canonical));
+    }
+
+    int bestMove(GameEngine engine) {
+        return bestMove(engine.playerOne(), engine.playerTwo(), engine.isPlayerOneToMove());
+    }
+
+    // Positive: side to move wins with best play, negative: loses, 0: draw
+    int score(int playerOne, int playerTwo, boolean playerOneToMove) {
+        return lookup(Symmetry.canonicalize(playerOne, playerTwo, playerOneToMove)) >> 8;
+    }
+
+    // Distinct positions up to symmetry reachable from an empty board,
+    // counted once per side to move
+    int storedPositions() {
+        return entries.size();
+    }
+
+    // Read-only after construction; every position reachable from an empty
+    // board is stored, so a miss means the caller passed an impossible one
+    private int lookup(long canonical) {
+        int entry = entries.get(Symmetry.key(canonical));
+        if (entry == PositionCache.MISS) {
+            throw new IllegalArgumentException("Not a reachable position: " + Long.toHexString(canonical));
+        }
+        return entry;
+    }
+
+    private int solve(int playerOne, int playerTwo, boolean playerOneToMove) {
+        long canonical = Symmetry.canonicalize(playerOne, playerTwo, playerOneToMove);
+        long key = Symmetry.key(canonical);
+        int entry = entries.get(key);
+        if (entry != PositionCache.MISS) return entry >> 8;
+
+        // Search in the canonical frame so the stored move needs no mapping
+        int t = Symmetry.transform(canonical);
+        playerOne = Symmetry.transformMask(playerOne, t);
+        playerTwo = Symmetry.transformMask(playerTwo, t);
+
+        int empty = Board.ALL & ~(playerOne | playerTwo);
+        int lastMover = playerOneToMove ? playerTwo : playerOne;
+        int best;
+        int bestMove = 0;
+        if (Board.isWin(lastMover)) {
+            best = -(Integer.bitCount(empty) + 1);
+        } else if (empty == 0) {
+            best = 0;
+        } else {
+            best = Integer.MIN_VALUE;
+            for (int pos : MOVE_ORDER) {
+                int bit = Board.bit(pos);
+                if ((empty & bit) == 0) continue;
+                int score = playerOneToMove
+                    ? -solve(playerOne | bit, playerTwo, false)
+                    : -solve(playerOne, playerTwo | bit, true);
+                if (score > best) {
+                    best = score;
+                    bestMove = pos;
+                }
+            }
+        }
+        entries.put(key, (best << 8) | bestMove);
+        return best;
+    }
+}
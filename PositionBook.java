@@ -0,0 +1,273 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Opening book and endgame table for one MnkBoard shape, built offline and
+// memory-mapped read-only, so loading costs nothing until a page is touched
+// and any number of searchers can probe it without locks.
+//
+// The file is a 24-byte header, then fixed 16-byte records sorted by hash:
+//   header      magic, rows, cols, k, opening plies, endgame empties, count
+//   bytes 0-7   MnkBoard Zobrist hash (stable across runs for a shape)
+//   bytes 8-15  entry: bits 0-15 best cell (0xFFFF = none), bit 16 exact,
+//               bits 32-63 score for the side to move, relative to the node
+// Opening entries come from a timed search and only supply a move; exact
+// entries are solved values that AlphaBetaSearch can also cut off on.
+//
+//   java PositionBook [--rows 3] [--cols 3] [--k 3] [--opening-plies 2]
+//                     [--selfplay-games 200] [--endgame-empties 6]
+//                     [--search-ms 200] [--solve-ms 2000] [--seed S] [--out path]
+final class PositionBook {
+    static final byte[] MAGIC = {'X', 'O', 'B', 'O', 'O', 'K', 0, 2};
+    static final int HEADER_BYTES = 24;
+    static final int RECORD_BYTES = 16;
+    static final long MISS = Long.MIN_VALUE;
+
+    private static final int NO_MOVE = 0xFFFF;
+    private static final long EXACT = 1L << 16;
+    private static final int SCORE_SHIFT = 32;
+    // Header fields are one byte each
+    private static final int MAX_HEADER_FIELD = 0xFF;
+
+    private static final Map<Long, Optional<PositionBook>> BY_SHAPE = new ConcurrentHashMap<>();
+
+    private final ByteBuffer records;
+    private final int count;
+    final int rows, cols, k, openingPlies, endgameEmpties;
+
+    private PositionBook(ByteBuffer mapped) {
+        rows = mapped.get(8) & 0xFF;
+        cols = mapped.get(9) & 0xFF;
+        k = mapped.get(10) & 0xFF;
+        openingPlies = mapped.get(11) & 0xFF;
+        endgameEmpties = mapped.get(12) & 0xFF;
+        count = mapped.getInt(16);
+        records = mapped;
+    }
+
+    // Book for the 3x3 game, or null if none has been built
+    static PositionBook classic() {
+        return forShape(3, 3, 3);
+    }
+
+    // Book for a board shape from the default path, mapped on first use and
+    // shared from then on; null if none has been built
+    static PositionBook forShape(int rows, int cols, int k) {
+        long shape = ((long) rows << 40) | ((long) cols << 20) | k;
+        return BY_SHAPE.computeIfAbsent(shape, key -> Optional.ofNullable(open(defaultPath(rows, cols, k), rows, cols, k)))
+            .orElse(null);
+    }
+
+    // books/book-RxC-K.bin under -Dxando.books, or the working directory
+    static Path defaultPath(int rows, int cols, int k) {
+        String dir = System.getProperty("xando.books", "books");
+        return Path.of(dir, "book-" + rows + "x" + cols + "-" + k + ".bin");
+    }
+
+    // Maps the book for the given shape; null if it is missing or built for
+    // another shape, in which case callers simply search as before
+    static PositionBook open(Path path, int rows, int cols, int k) {
+        if (!Files.isRegularFile(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+            if (mapped.limit() < HEADER_BYTES || !mapped.slice(0, MAGIC.length).equals(ByteBuffer.wrap(MAGIC))) {
+                System.err.println("Position book ignored: " + path + " is not a position book");
+                return null;
+            }
+            PositionBook book = new PositionBook(mapped);
+            if (book.rows != rows || book.cols != cols || book.k != k
+                    || mapped.limit() != HEADER_BYTES + (long) book.count * RECORD_BYTES) {
+                System.err.println("Position book ignored: " + path + " does not match a " + rows + "x" + cols + " k=" + k + " board");
+                return null;
+            }
+            return book;
+        } catch (IOException e) {
+            System.err.println("Position book ignored: " + e.getMessage());
+            return null;
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    // Only positions in the opening or endgame range can be in the book, so
+    // the midgame never pays for a binary search
+    boolean covers(MnkBoard board) {
+        return board.moveCount() <= openingPlies || board.size() - board.moveCount() <= endgameEmpties;
+    }
+
+    // Packed entry for the position, or MISS
+    long probe(long hash) {
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = records.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+            if (key < hash) low = mid + 1;
+            else if (key > hash) high = mid - 1;
+            else return records.getLong(HEADER_BYTES + mid * RECORD_BYTES + 8);
+        }
+        return MISS;
+    }
+
+    static int move(long entry) {
+        int cell = (int) entry & NO_MOVE;
+        return cell == NO_MOVE ? -1 : cell;
+    }
+
+    static boolean isExact(long entry) {
+        return (entry & EXACT) != 0;
+    }
+
+    static int score(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    static long pack(int move, boolean exact, int score) {
+        return (long) score << SCORE_SHIFT | (exact ? EXACT : 0) | (move < 0 ? NO_MOVE : move);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = 3, cols = 3, k = 3, openingPlies = 2, games = 200, endgameEmpties = 6;
+        long searchMillis = 200, solveMillis = 2000, seed = 1;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rows": rows = Integer.parseInt(args[++i]); break;
+                case "--cols": cols = Integer.parseInt(args[++i]); break;
+                case "--k": k = Integer.parseInt(args[++i]); break;
+                case "--opening-plies": openingPlies = Integer.parseInt(args[++i]); break;
+                case "--selfplay-games": games = Integer.parseInt(args[++i]); break;
+                case "--endgame-empties": endgameEmpties = Integer.parseInt(args[++i]); break;
+                case "--search-ms": searchMillis = Long.parseLong(args[++i]); break;
+                case "--solve-ms": solveMillis = Long.parseLong(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--out": out = Path.of(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        // The header holds the shape in single bytes and a record holds a cell
+        // in 16 bits, one value short of the range for "no move"
+        if (rows > MAX_HEADER_FIELD || cols > MAX_HEADER_FIELD || k > MAX_HEADER_FIELD || rows * cols >= NO_MOVE) {
+            System.err.println("A " + rows + "x" + cols + " k=" + k + " board does not fit the book format");
+            System.exit(2);
+        }
+        if (out == null) out = defaultPath(rows, cols, k);
+        openingPlies = Math.min(openingPlies, Math.min(MAX_HEADER_FIELD, rows * cols));
+        endgameEmpties = Math.min(endgameEmpties, Math.min(MAX_HEADER_FIELD, rows * cols));
+
+        long start = System.nanoTime();
+        TranspositionTable table = new TranspositionTable(64);
+        Map<Long, Long> entries = new HashMap<>();
+        int exact = 0;
+
+        // Every position up to the opening depth, with either side starting
+        List<MnkBoard> openings = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int first = MnkBoard.PLAYER_ONE; first <= MnkBoard.PLAYER_TWO; first++) {
+            MnkBoard board = new MnkBoard(rows, cols, k);
+            board.setFirstMover(first);
+            enumerate(board, openingPlies, seen, openings);
+        }
+        for (MnkBoard board : openings) {
+            long entry = analyse(board, table, searchMillis);
+            entries.put(board.hash(), entry);
+            if (isExact(entry)) exact++;
+        }
+        System.out.printf("%d opening positions (%d solved)%n", openings.size(), exact);
+
+        // Endgames actually reached in self-play between timed searches, with
+        // an occasional random move so the games do not all repeat
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<Long> endgames = new HashSet<>();
+        List<MnkBoard> toSolve = new ArrayList<>();
+        int[] buffer = new int[rows * cols];
+        for (int game = 0; game < games; game++) {
+            MnkBoard board = new MnkBoard(rows, cols, k);
+            board.setFirstMover(game % 2 == 0 ? MnkBoard.PLAYER_ONE : MnkBoard.PLAYER_TWO);
+            while (!board.isGameOver()) {
+                if (board.size() - board.moveCount() <= endgameEmpties && endgames.add(board.hash())) {
+                    toSolve.add(board.copy());
+                }
+                int move;
+                if (random.nextInt(4) == 0) {
+                    move = buffer[random.nextInt(board.legalMoves(buffer))];
+                } else {
+                    move = new AlphaBetaSearch(board, table).search(searchMillis / 4 + 1, board.size()).bestMove;
+                }
+                board.make(move);
+            }
+        }
+        int solved = 0;
+        for (MnkBoard board : toSolve) {
+            if (entries.containsKey(board.hash())) continue;
+            long entry = analyse(board, table, solveMillis);
+            // An endgame entry is only worth keeping if it is a proven value
+            if (!isExact(entry)) continue;
+            entries.put(board.hash(), entry);
+            solved++;
+        }
+        System.out.printf("%d endgame positions from %d self-play games (%d solved)%n", toSolve.size(), games, solved);
+
+        write(out, rows, cols, k, openingPlies, endgameEmpties, entries);
+        System.out.printf("Wrote %d positions (%d bytes) to %s in %.1f s%n", entries.size(),
+            HEADER_BYTES + entries.size() * RECORD_BYTES, out, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void enumerate(MnkBoard board, int plies, Set<Long> seen, List<MnkBoard> out) {
+        if (board.isGameOver() || !seen.add(board.hash())) return;
+        out.add(board.copy());
+        if (board.moveCount() >= plies) return;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (!board.isEmpty(cell)) continue;
+            board.make(cell);
+            enumerate(board, plies, seen, out);
+            board.unmake();
+        }
+    }
+
+    // Searches the position and packs the result; exact when the search
+    // reached every leaf or proved a win or loss
+    private static long analyse(MnkBoard board, TranspositionTable table, long millis) {
+        int empties = board.size() - board.moveCount();
+        AlphaBetaSearch.Result result = new AlphaBetaSearch(board, table).search(millis, empties);
+        boolean exact = result.depth == empties || Math.abs(result.score) >= AlphaBetaSearch.WIN_BOUND;
+        return pack(result.bestMove, exact, result.score);
+    }
+
+    private static void write(Path path, int rows, int cols, int k, int openingPlies, int endgameEmpties,
+                              Map<Long, Long> entries) throws IOException {
+        long[] keys = new long[entries.size()];
+        int n = 0;
+        for (long key : entries.keySet()) keys[n++] = key;
+        java.util.Arrays.sort(keys);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + keys.length * RECORD_BYTES);
+        buffer.put(MAGIC).put((byte) rows).put((byte) cols).put((byte) k)
+            .put((byte) openingPlies).put((byte) endgameEmpties).put(new byte[3])
+            .putInt(keys.length).putInt(0);
+        for (long key : keys) buffer.putLong(key).putLong(entries.get(key));
+        buffer.flip();
+
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+}
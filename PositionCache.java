@@ -0,0 +1,72 @@
+// Fixed-capacity map from a position key to a packed int result, backed by
+// primitive arrays. Linear probing keeps lookups to a few slots; once a probe
+// run is exhausted the home slot is overwritten, so memory never grows.
+// Reads keep no statistics: the table behind PerfectPlayTable.instance() is
+// read by many threads at once, and a shared counter would be both a data
+// race and a cache line every reader writes.
+final class PositionCache {
+    static final int MISS = Integer.MIN_VALUE;
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    // Capacity is rounded up to a power of two
+    PositionCache(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        keys = new long[slots];
+        values = new int[slots];
+        mask = slots - 1;
+        java.util.Arrays.fill(keys, EMPTY);
+    }
+
+    int get(long key) {
+        int slot = index(key);
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+            if (keys[slot] == EMPTY) break;
+        }
+        return MISS;
+    }
+
+    void put(long key, int value) {
+        int home = index(key);
+        int slot = home;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+        }
+        // Probe run full - replace the home slot rather than grow
+        keys[home] = key;
+        values[home] = value;
+    }
+
+    void clear() {
+        java.util.Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -0,0 +1,173 @@
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+
+// Round and match results drawn on the frame's glass pane, in place of a
+// modal JDialog per result. One overlay is built per game window and reused:
+// show calls only swap its text and color and start a fade. Nothing blocks
+// the event thread while a result is up, and the overlay swallows clicks so
+// the board underneath cannot be played until it goes away.
+//
+// With animations off, round results are skipped outright (onDone runs
+// straight away) and the champion card appears without fading in.
+@SuppressWarnings("serial")
+final class ResultOverlay extends JComponent {
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 28);
+    private static final Font MESSAGE_FONT = new Font("Segoe UI", Font.BOLD, 18);
+    private static final Font DETAIL_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    private static final Color SHADE = new Color(0, 0, 0, 90);
+    private static final int FADE_MILLIS = 200;
+    private static final int FRAME_MILLIS = 16;
+    private static final int CARD_WIDTH = 340, RESULT_HEIGHT = 160, CHOICE_HEIGHT = 220, BUTTON_HEIGHT = 40;
+
+    private final JButton primary, secondary;
+    private final Timer fade = new Timer(FRAME_MILLIS, e -> stepFade());
+    private final Timer dismiss;
+    private final boolean animate;
+    private String title = "";
+    private String[] lines = {};
+    private String detail;
+    private Color color = Color.GRAY;
+    private int cardHeight = RESULT_HEIGHT;
+    private float alpha;
+    private long fadeStart;
+    private Runnable onDone, onPrimary, onSecondary;
+    private GameEvents.Overlay shown;
+
+    ResultOverlay(JButton primary, JButton secondary, boolean animate) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.animate = animate;
+        setOpaque(false);
+        setLayout(null);
+        primary.addActionListener(e -> finish(onPrimary));
+        secondary.addActionListener(e -> finish(onSecondary));
+        add(primary);
+        add(secondary);
+        // A listener is enough to stop clicks reaching the board below
+        addMouseListener(new MouseAdapter() { });
+        dismiss = new Timer(0, e -> finish(onDone));
+        dismiss.setRepeats(false);
+        setVisible(false);
+    }
+
+    // Shows a round result for displayMillis, then hides it and runs onDone
+    void showResult(String title, String message, Color color, int displayMillis, Runnable onDone) {
+        if (!animate) {
+            hideOverlay();
+            onDone.run();
+            return;
+        }
+        display(title, message, null, color);
+        cardHeight = RESULT_HEIGHT;
+        primary.setVisible(false);
+        secondary.setVisible(false);
+        this.onDone = onDone;
+        dismiss.setInitialDelay(displayMillis);
+        dismiss.restart();
+    }
+
+    // Shows a result that stays up until one of the two buttons is pressed
+    void showChoice(String title, String message, String detail, Color color,
+                    String primaryText, Runnable onPrimary, String secondaryText, Runnable onSecondary) {
+        display(title, message, detail, color);
+        cardHeight = CHOICE_HEIGHT;
+        dismiss.stop();
+        this.onPrimary = onPrimary;
+        this.onSecondary = onSecondary;
+        primary.setText(primaryText);
+        primary.setForeground(color);
+        secondary.setText(secondaryText);
+        primary.setVisible(true);
+        secondary.setVisible(true);
+    }
+
+    void hideOverlay() {
+        fade.stop();
+        dismiss.stop();
+        if (shown != null) {
+            shown.commit();
+            shown = null;
+        }
+        setVisible(false);
+    }
+
+    private void display(String title, String message, String detail, Color color) {
+        hideOverlay();
+        this.title = title;
+        this.lines = message.split("\n");
+        this.detail = detail;
+        this.color = color;
+        shown = new GameEvents.Overlay();
+        shown.overlay = title;
+        shown.begin();
+        if (animate) {
+            alpha = 0;
+            fadeStart = System.nanoTime();
+            fade.start();
+        } else {
+            alpha = 1;
+        }
+        setVisible(true);
+        repaint();
+    }
+
+    private void stepFade() {
+        alpha = Math.min(1f, (System.nanoTime() - fadeStart) / 1e6f / FADE_MILLIS);
+        if (alpha >= 1) fade.stop();
+        repaint();
+    }
+
+    private void finish(Runnable action) {
+        hideOverlay();
+        if (action != null) action.run();
+    }
+
+    @Override
+    public void doLayout() {
+        int x = (getWidth() - CARD_WIDTH) / 2 + 20, y = (getHeight() + CHOICE_HEIGHT) / 2 - BUTTON_HEIGHT - 16;
+        int width = (CARD_WIDTH - 40 - 10) / 2;
+        primary.setBounds(x, y, width, BUTTON_HEIGHT);
+        secondary.setBounds(x + width + 10, y, width, BUTTON_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setComposite(AlphaComposite.SrcOver.derive(alpha));
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(SHADE);
+            g.fillRect(0, 0, getWidth(), getHeight());
+
+            int x = (getWidth() - CARD_WIDTH) / 2, y = (getHeight() - cardHeight) / 2;
+            g.setColor(color);
+            g.fillRoundRect(x, y, CARD_WIDTH, cardHeight, 24, 24);
+
+            g.setColor(Color.WHITE);
+            int baseline = y + 48;
+            baseline = drawCentered(g, TITLE_FONT, title, baseline) + 12;
+            for (String line : lines) baseline = drawCentered(g, MESSAGE_FONT, line, baseline);
+            if (detail != null) drawCentered(g, DETAIL_FONT, detail, baseline + 4);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Draws text centered at the baseline and returns the next line's baseline
+    private int drawCentered(Graphics2D g, Font font, String text, int baseline) {
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, (getWidth() - metrics.stringWidth(text)) / 2, baseline);
+        return baseline + metrics.getHeight();
+    }
+}
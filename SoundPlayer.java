@@ -0,0 +1,107 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Sound cues synthesized once and played on a dedicated thread through a
+// single line that stays open. The synthesis itself runs on that thread
+// too, so constructing a player costs the caller nothing at startup.
+// play() never blocks the caller: a full queue drops the new cue, and cues
+// that waited too long are skipped, so fast clicking cannot build up a
+// backlog of stale beeps.
+final class SoundPlayer {
+    private static final float SAMPLE_RATE = 44100;
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long STALE_NANOS = 250_000_000L;
+
+    private static final int MOVE = 0, WIN = 1, LOSE = 2;
+
+    private final BlockingQueue<Cue> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private SourceDataLine line;
+
+    private static final class Cue {
+        final int kind;
+        final long queuedAt;
+
+        Cue(int kind) {
+            this.kind = kind;
+            this.queuedAt = System.nanoTime();
+        }
+    }
+
+    SoundPlayer() {
+        Thread player = new Thread(this::run, "sound");
+        player.setDaemon(true);
+        player.start();
+    }
+
+    void play(String soundType) {
+        int kind;
+        switch (soundType) {
+            case "win": kind = WIN; break;
+            case "lose": kind = LOSE; break;
+            case "move": kind = MOVE; break;
+            default: return;
+        }
+        if (!queue.offer(new Cue(kind)) && Metrics.ENABLED) Metrics.soundDropped();
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        byte[][] cues = {
+            tones(new int[] {600, 100}),                    // Quick move sound
+            tones(new int[] {800, 200, 0, 100, 1000, 300}),  // High pitch victory
+            tones(new int[] {300, 400, 0, 100, 200, 400}),   // Low pitch defeat
+        };
+        while (true) {
+            try {
+                Cue cue = queue.take();
+                if (System.nanoTime() - cue.queuedAt > STALE_NANOS) {
+                    if (Metrics.ENABLED) Metrics.soundSkipped();
+                    continue;
+                }
+                write(cues[cue.kind]);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void write(byte[] samples) {
+        try {
+            if (line == null) {
+                line = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, FORMAT));
+                line.open(FORMAT);
+                line.start();
+            }
+            line.write(samples, 0, samples.length);
+        } catch (Exception e) {
+            // Silently handle audio errors; retry with a fresh line next time
+            if (line != null) line.close();
+            line = null;
+        }
+    }
+
+    // (frequency, millis) pairs rendered back to back; frequency 0 is silence
+    private static byte[] tones(int[] spec) {
+        int total = 0;
+        for (int i = 1; i < spec.length; i += 2) total += spec[i] * (int) SAMPLE_RATE / 1000;
+        byte[] buffer = new byte[total];
+        int offset = 0;
+        for (int i = 0; i < spec.length; i += 2) {
+            int frequency = spec[i], length = spec[i + 1] * (int) SAMPLE_RATE / 1000;
+            for (int j = 0; j < length && frequency > 0; j++) {
+                double angle = 2.0 * Math.PI * j * frequency / SAMPLE_RATE;
+                buffer[offset + j] = (byte) (Math.sin(angle) * 127);
+            }
+            offset += length;
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,80 @@
+// The 8 rotations/reflections of a square board. Equivalent positions share
+// one canonical form, so caches store each position once instead of up to
+// eight times; a move found in the canonical frame is mapped back through
+// the inverse transform.
+final class Symmetry {
+    static final int TRANSFORMS = 8;
+
+    // SQUARES[t][i]: where square index i (0-8) lands under transform t
+    static final int[][] SQUARES = squarePermutations(3);
+    static final int[] INVERSE = new int[TRANSFORMS];
+
+    // MASKS[t][mask]: a 9-bit player mask under transform t
+    private static final short[][] MASKS = new short[TRANSFORMS][Board.ALL + 1];
+
+    static {
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int u = 0; u < TRANSFORMS; u++) {
+                boolean identity = true;
+                for (int i = 0; i < Board.SQUARES; i++) {
+                    if (SQUARES[u][SQUARES[t][i]] != i) identity = false;
+                }
+                if (identity) INVERSE[t] = u;
+            }
+            for (int mask = 1; mask <= Board.ALL; mask++) {
+                int low = Integer.numberOfTrailingZeros(mask);
+                MASKS[t][mask] = (short) (MASKS[t][mask & (mask - 1)] | (1 << SQUARES[t][low]));
+            }
+        }
+    }
+
+    // Index permutations for an n x n board: identity, three rotations,
+    // then the same four after a horizontal mirror
+    static int[][] squarePermutations(int n) {
+        int[][] permutations = new int[TRANSFORMS][n * n];
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    int r = row, c = t >= 4 ? n - 1 - col : col;
+                    for (int turn = 0; turn < (t & 3); turn++) {
+                        int rotated = c;
+                        c = n - 1 - r;
+                        r = rotated;
+                    }
+                    permutations[t][row * n + col] = r * n + c;
+                }
+            }
+        }
+        return permutations;
+    }
+
+    static int transformMask(int mask, int t) {
+        return MASKS[t][mask];
+    }
+
+    // Square (1-9) in the original frame for a square chosen in the frame of transform t
+    static int untransformSquare(int pos, int t) {
+        return SQUARES[INVERSE[t]][pos - 1] + 1;
+    }
+
+    // Smallest key over all 8 transforms, packed as (canonical key << 3) | transform.
+    // The key itself is (playerOne << 10) | (playerTwo << 1) | playerOneToMove.
+    static long canonicalize(int playerOne, int playerTwo, boolean playerOneToMove) {
+        long best = Long.MAX_VALUE;
+        int side = playerOneToMove ? 1 : 0;
+        for (int t = 0; t < TRANSFORMS; t++) {
+            long key = ((long) MASKS[t][playerOne] << 10) | (MASKS[t][playerTwo] << 1) | side;
+            long packed = (key << 3) | t;
+            if (packed < best) best = packed;
+        }
+        return best;
+    }
+
+    static long key(long canonical) {
+        return canonical >>> 3;
+    }
+
+    static int transform(long canonical) {
+        return (int) (canonical & 7);
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Headless AI-vs-AI tournament. Every pair of engines plays N games split
+// across worker threads, alternating who moves first. Each game opens with
+// a few random moves chosen only among those that keep the solved value a
+// draw, so no engine is handed a lost position before it starts playing.
+// Prints a win/draw/loss matrix plus games/second and moves/second.
+//
+//   java Tournament [--games N] [--threads T] [--opening-moves K] [--seed S]
+//                   [--search-ms M] [--mcts-exploration C] [--assert-unbeaten ENGINE]
+//                   ENGINE ENGINE...
+//
+// Engines: easy, medium, hard, search, mcts, heuristic (the rule-based player).
+final class Tournament {
+    private static final String[] ENGINES = {"easy", "medium", "hard", "search", "mcts", "heuristic"};
+
+    private int games = 100_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int openingMoves = 2;
+    private long seed = System.nanoTime();
+    private long searchMillis = 5;
+    private double exploration = UctTree.DEFAULT_EXPLORATION;
+
+    public static void main(String[] args) throws Exception {
+        Tournament tournament = new Tournament();
+        List<String> engines = new ArrayList<>();
+        String unbeaten = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games": tournament.games = Integer.parseInt(args[++i]); break;
+                case "--threads": tournament.threads = Integer.parseInt(args[++i]); break;
+                case "--opening-moves": tournament.openingMoves = Integer.parseInt(args[++i]); break;
+                case "--seed": tournament.seed = Long.parseLong(args[++i]); break;
+                case "--search-ms": tournament.searchMillis = Long.parseLong(args[++i]); break;
+                case "--mcts-exploration": tournament.exploration = Double.parseDouble(args[++i]); break;
+                case "--assert-unbeaten": unbeaten = engineName(args[++i]); break;
+                default: engines.add(engineName(args[i]));
+            }
+        }
+        if (engines.size() < 2) {
+            System.err.println("Usage: java Tournament [options] ENGINE ENGINE... (engines: " + String.join(", ", ENGINES) + ")");
+            System.exit(2);
+        }
+        boolean beaten = tournament.run(engines, unbeaten);
+        System.exit(beaten ? 1 : 0);
+    }
+
+    private static String engineName(String name) {
+        for (String engine : ENGINES) {
+            if (engine.equalsIgnoreCase(name)) return engine;
+        }
+        throw new IllegalArgumentException("Unknown engine: " + name);
+    }
+
+    // Plays every pairing and reports; true if the unbeaten engine lost a game
+    private boolean run(List<String> engines, String unbeaten) throws Exception {
+        int n = engines.size();
+        long[][][] record = new long[n][n][3];   // [row][column] -> row wins, draws, row losses
+        long totalGames = 0, totalMoves = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        try {
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    List<Future<long[]>> parts = new ArrayList<>();
+                    int perThread = (games + threads - 1) / threads;
+                    for (int t = 0; t < threads; t++) {
+                        int count = Math.min(perThread, games - t * perThread);
+                        if (count <= 0) break;
+                        String one = engines.get(a), two = engines.get(b);
+                        long partSeed = seeds.nextLong();
+                        parts.add(pool.submit(() -> playGames(one, two, count, partSeed)));
+                    }
+                    for (Future<long[]> part : parts) {
+                        long[] tally = part.get();
+                        record[a][b][0] += tally[0];
+                        record[a][b][1] += tally[1];
+                        record[a][b][2] += tally[2];
+                        totalMoves += tally[3];
+                    }
+                    record[b][a][0] = record[a][b][2];
+                    record[b][a][1] = record[a][b][1];
+                    record[b][a][2] = record[a][b][0];
+                    totalGames += record[a][b][0] + record[a][b][1] + record[a][b][2];
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Win/draw/loss from the row engine's view (" + games + " games per pairing, seed " + seed + ")");
+        System.out.printf("%-10s", "");
+        for (String engine : engines) System.out.printf("%24s", engine);
+        System.out.println();
+        for (int a = 0; a < n; a++) {
+            System.out.printf("%-10s", engines.get(a));
+            for (int b = 0; b < n; b++) {
+                System.out.printf("%24s", a == b ? "-" : record[a][b][0] + "/" + record[a][b][1] + "/" + record[a][b][2]);
+            }
+            System.out.println();
+        }
+        System.out.printf(Locale.ROOT, "%d games, %d moves in %.2f s: %.0f games/s, %.0f moves/s%n",
+            totalGames, totalMoves, seconds, totalGames / seconds, totalMoves / seconds);
+
+        if (unbeaten == null) return false;
+        int row = engines.indexOf(unbeaten);
+        long losses = 0;
+        for (int b = 0; b < n && row >= 0; b++) losses += record[row][b][2];
+        System.out.println(unbeaten + (losses == 0 ? " was never beaten" : " LOST " + losses + " games"));
+        return losses > 0;
+    }
+
+    // Returns {one wins, draws, two wins, moves}
+    private long[] playGames(String one, String two, int count, long partSeed) {
+        Random random = new Random(partSeed);
+        AIPlayer ai = new AIPlayer(random);
+        ai.setSearchThreads(1);
+        ai.setSearchTimeMillis(searchMillis);
+        ai.setMonteCarloTimeMillis(searchMillis);
+        ai.setMonteCarloExploration(exploration);
+        GameEngine game = new GameEngine();
+        long[] tally = new long[4];
+        for (int g = 0; g < count; g++) {
+            game.reset(g % 2 == 0);
+            for (int i = 0; i < openingMoves && game.result() == GameEngine.IN_PROGRESS; i++) {
+                game.applyMove(balancedMove(game, random));
+                tally[3]++;
+            }
+            while (game.result() == GameEngine.IN_PROGRESS) {
+                String engine = game.isPlayerOneToMove() ? one : two;
+                if (!game.applyMove(move(engine, ai, game))) {
+                    throw new IllegalStateException(engine + " played an illegal move");
+                }
+                tally[3]++;
+            }
+            switch (game.result()) {
+                case GameEngine.PLAYER_ONE_WINS: tally[0]++; break;
+                case GameEngine.PLAYER_TWO_WINS: tally[2]++; break;
+                default: tally[1]++;
+            }
+        }
+        return tally;
+    }
+
+    // Random square that leaves the position a draw with perfect play
+    private static int balancedMove(GameEngine game, Random random) {
+        PerfectPlayTable table = PerfectPlayTable.instance();
+        boolean oneToMove = game.isPlayerOneToMove();
+        int balanced = 0;
+        for (int rest = game.empty(); rest != 0; rest &= rest - 1) {
+            int bit = rest & -rest;
+            int score = oneToMove
+                ? table.score(game.playerOne() | bit, game.playerTwo(), false)
+                : table.score(game.playerOne(), game.playerTwo() | bit, true);
+            if (score == 0) balanced |= bit;
+        }
+        if (balanced == 0) balanced = game.empty();
+        int n = random.nextInt(Integer.bitCount(balanced));
+        while (n-- > 0) balanced &= balanced - 1;
+        return Board.firstSquare(balanced);
+    }
+
+    private static int move(String engine, AIPlayer ai, GameEngine game) {
+        switch (engine) {
+            case "easy": return ai.getAIMove(game, AIPlayer.EASY);
+            case "medium": return ai.getAIMove(game, AIPlayer.MEDIUM);
+            case "hard": return ai.getAIMove(game, AIPlayer.HARD);
+            case "search": return ai.getAIMove(game, AIPlayer.SEARCH);
+            case "mcts": return ai.getAIMove(game, AIPlayer.MCTS);
+            default: return ai.getUnbeatableMove(game);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// Fixed-memory transposition table for AlphaBetaSearch. Two parallel long
+// arrays hold (key, packed entry) pairs in buckets of two: the first slot
+// keeps the deepest result seen, the second is always replaced. Nothing is
+// allocated after construction, so memory stays at the configured cap.
+//
+// The table is shared by parallel searchers without locks: each key slot
+// holds key ^ entry, so a slot torn by two racing writers fails the key
+// check and reads as a miss instead of returning a mixed-up entry.
+final class TranspositionTable {
+    static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    static final long MISS = 0L;
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int bucketMask;
+
+    TranspositionTable(int megabytes) {
+        long budget = Math.max(1, megabytes) * 1024L * 1024L / BYTES_PER_ENTRY;
+        int buckets = Integer.highestOneBit((int) Math.min(budget / 2, 1 << 30));
+        keys = new long[buckets * 2];
+        entries = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    // Packed entry for the position, or MISS
+    long probe(long key) {
+        int slot = ((int) key & bucketMask) << 1;
+        long entry = entries[slot];
+        if (entry != MISS && (keys[slot] ^ entry) == key) return entry;
+        entry = entries[slot + 1];
+        if (entry != MISS && (keys[slot + 1] ^ entry) == key) return entry;
+        return MISS;
+    }
+
+    void store(long key, int depth, int flag, int score, int move) {
+        long entry = pack(depth, flag, score, move);
+        int slot = ((int) key & bucketMask) << 1;
+        long current = entries[slot];
+        // Depth-preferred slot: same position or at least as deep a search
+        if (current == MISS || (keys[slot] ^ current) == key || depth >= depth(current)) {
+            entries[slot] = entry;
+            keys[slot] = key ^ entry;
+        } else {
+            entries[slot + 1] = entry;
+            keys[slot + 1] = key ^ entry;
+        }
+    }
+
+    void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(entries, MISS);
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    // Layout: score (32) | stored marker (1) | move + 1 (19) | depth (10) | flag (2),
+    // so a stored entry is never MISS
+    private static long pack(int depth, int flag, int score, int move) {
+        return ((long) score << 32) | ((long) (move + 1) << 12) | ((long) depth << 2) | flag | (1L << 31);
+    }
+
+    static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    static int move(long entry) {
+        return (int) ((entry >>> 12) & 0x7FFFF) - 1;
+    }
+
+    static int depth(long entry) {
+        return (int) ((entry >>> 2) & 0x3FF);
+    }
+
+    static int flag(long entry) {
+        return (int) (entry & 3);
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.SplittableRandom;
+
+// The search tree both Monte Carlo engines grow: MonteCarloSearch over an
+// MnkBoard and UltimateSearch over an UltimateBoard. Only the board and how
+// moves are generated and played out differ between them, so the node pool,
+// UCT selection, expansion and backup live here once.
+//
+// The pool is parallel primitive arrays allocated up front; a node's
+// children sit next to each other, so neither engine allocates while it
+// searches. Node n holds its move, its children firstChild[n] ..
+// + childCount[n] - 1, and the results below it in half points (win 2,
+// draw 1) from the view of the side that played move[n].
+final class UctTree {
+    static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    private final int[] move;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] visits;
+    private final int[] score;
+    private final double exploration;
+    private int nodeCount;
+
+    UctTree(int maxNodes, double exploration) {
+        this.exploration = exploration;
+        move = new int[maxNodes];
+        firstChild = new int[maxNodes];
+        childCount = new int[maxNodes];
+        visits = new int[maxNodes];
+        score = new int[maxNodes];
+    }
+
+    // Empties the pool down to a fresh root and returns it
+    int reset() {
+        nodeCount = 1;
+        childCount[0] = 0;
+        visits[0] = 0;
+        score[0] = 0;
+        return 0;
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    int capacity() {
+        return move.length;
+    }
+
+    double exploration() {
+        return exploration;
+    }
+
+    int move(int node) {
+        return move[node];
+    }
+
+    int visits(int node) {
+        return visits[node];
+    }
+
+    boolean isLeaf(int node) {
+        return childCount[node] == 0;
+    }
+
+    // The child of node reached by cell, or -1
+    int child(int node, int cell) {
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (move[child] == cell) return child;
+        }
+        return -1;
+    }
+
+    // An unvisited child first, then the highest UCB1 value
+    int select(int node) {
+        int first = firstChild[node], end = first + childCount[node];
+        double logVisits = Math.log(visits[node]);
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < end; child++) {
+            int n = visits[child];
+            if (n == 0) return child;
+            double value = score[child] / (2.0 * n) + exploration * Math.sqrt(logVisits / n);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Adds a child per move; false once the pool is full
+    boolean expand(int node, int[] moves, int count) {
+        if (nodeCount + count > move.length) return false;
+        firstChild[node] = nodeCount;
+        childCount[node] = count;
+        for (int i = 0; i < count; i++) {
+            int child = nodeCount++;
+            move[child] = moves[i];
+            childCount[child] = 0;
+            visits[child] = 0;
+            score[child] = 0;
+        }
+        return true;
+    }
+
+    // A uniformly random child of a node that has just been expanded
+    int randomChild(int node, SplittableRandom random) {
+        return firstChild[node] + random.nextInt(childCount[node]);
+    }
+
+    // Credits one playout to path[0..depth], where path[0] is the root.
+    // Nodes at odd depths were played by the side to move at the root.
+    void backup(int[] path, int depth, int rootPoints) {
+        for (int d = depth; d >= 0; d--) {
+            int n = path[d];
+            visits[n]++;
+            score[n] += (d & 1) == 1 ? rootPoints : 2 - rootPoints;
+        }
+    }
+
+    // The most visited child of node
+    int mostVisitedChild(int node) {
+        int best = firstChild[node];
+        for (int child = best + 1; child < firstChild[node] + childCount[node]; child++) {
+            if (visits[child] > visits[best]) best = child;
+        }
+        return best;
+    }
+
+    // Share of the node's playouts its mover won, draws as half
+    double value(int node) {
+        return visits[node] == 0 ? 0 : score[node] / (2.0 * visits[node]);
+    }
+}
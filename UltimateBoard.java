@@ -0,0 +1,200 @@
+// Ultimate tic-tac-toe rules: nine small 3x3 boards in a 3x3 meta-board.
+// The square a move takes inside its small board sends the opponent to the
+// matching small board; if that board is already won or full they may play
+// in any open board. Winning a small board claims that square of the
+// meta-board, and a line on the meta-board wins the game.
+//
+// Each small board is a pair of 9-bit masks as in Board, so deciding a small
+// board and the meta-board are both a Board.isWin lookup, and a copy is a
+// handful of ints - cheap enough for MCTS playouts. Cells are numbered row
+// by row 0-80 on the 9x9 grid, the way BoardComponent indexes them; boards
+// and the squares inside them are numbered 0-8 the same way.
+final class UltimateBoard {
+    static final int CELLS = 81;
+    static final int ANY = -1;   // active(): the side to move may pick any open board
+    static final int EMPTY = 0, X = 1, O = 2;   // the same marks as BoardComponent
+
+    // cell -> board and square, and back via board * 9 + square
+    private static final byte[] BOARD_OF = new byte[CELLS];
+    private static final byte[] SQUARE_OF = new byte[CELLS];
+    private static final byte[] CELL_OF = new byte[CELLS];
+
+    // Indexed by a meta-board mask of boards a player can no longer claim:
+    // is some line still free of them. When neither player has one the
+    // game is a draw, so play stops there instead of filling every board.
+    private static final boolean[] OPEN_LINE = new boolean[Board.ALL + 1];
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / 9, col = cell % 9;
+            int board = row / 3 * 3 + col / 3, square = row % 3 * 3 + col % 3;
+            BOARD_OF[cell] = (byte) board;
+            SQUARE_OF[cell] = (byte) square;
+            CELL_OF[board * 9 + square] = (byte) cell;
+        }
+        for (int mask = 0; mask <= Board.ALL; mask++) {
+            for (int line : Board.WIN_LINES) {
+                if ((mask & line) == 0) OPEN_LINE[mask] = true;
+            }
+        }
+    }
+
+    private final int[] x = new int[9], o = new int[9];
+    private int xBoards, oBoards, closedBoards;   // won by X, won by O, won or full
+    private int active = ANY;
+    private boolean xToMove = true;
+    private int result = GameEngine.IN_PROGRESS;
+    private int moveCount;
+    private int lastMove = -1;
+
+    static int boardOf(int cell) {
+        return BOARD_OF[cell];
+    }
+
+    static int squareOf(int cell) {
+        return SQUARE_OF[cell];
+    }
+
+    static int cell(int board, int square) {
+        return CELL_OF[board * 9 + square];
+    }
+
+    void reset(boolean xFirst) {
+        for (int b = 0; b < 9; b++) {
+            x[b] = 0;
+            o[b] = 0;
+        }
+        xBoards = 0;
+        oBoards = 0;
+        closedBoards = 0;
+        active = ANY;
+        xToMove = xFirst;
+        result = GameEngine.IN_PROGRESS;
+        moveCount = 0;
+        lastMove = -1;
+    }
+
+    void copyFrom(UltimateBoard other) {
+        System.arraycopy(other.x, 0, x, 0, 9);
+        System.arraycopy(other.o, 0, o, 0, 9);
+        xBoards = other.xBoards;
+        oBoards = other.oBoards;
+        closedBoards = other.closedBoards;
+        active = other.active;
+        xToMove = other.xToMove;
+        result = other.result;
+        moveCount = other.moveCount;
+        lastMove = other.lastMove;
+    }
+
+    boolean isLegal(int cell) {
+        if (result != GameEngine.IN_PROGRESS || cell < 0 || cell >= CELLS) return false;
+        int board = BOARD_OF[cell];
+        return (legalBoards() & (1 << board)) != 0 && (empty(board) & (1 << SQUARE_OF[cell])) != 0;
+    }
+
+    // Checks the move first; false leaves the board untouched
+    boolean applyMove(int cell) {
+        if (!isLegal(cell)) return false;
+        play(cell);
+        return true;
+    }
+
+    // Plays a move already known to be legal
+    void play(int cell) {
+        play(BOARD_OF[cell], SQUARE_OF[cell]);
+    }
+
+    // The same by board and square, skipping the cell lookups in playouts
+    void play(int board, int square) {
+        int boardBit = 1 << board;
+        int closedBefore = closedBoards;
+        if (xToMove) {
+            x[board] |= 1 << square;
+            if (Board.isWin(x[board])) {
+                xBoards |= boardBit;
+                closedBoards |= boardBit;
+            }
+        } else {
+            o[board] |= 1 << square;
+            if (Board.isWin(o[board])) {
+                oBoards |= boardBit;
+                closedBoards |= boardBit;
+            }
+        }
+        if ((x[board] | o[board]) == Board.ALL) closedBoards |= boardBit;
+
+        // The meta-board only changes when a small board closes
+        if (closedBoards != closedBefore) {
+            if (Board.isWin(xBoards)) result = GameEngine.PLAYER_ONE_WINS;
+            else if (Board.isWin(oBoards)) result = GameEngine.PLAYER_TWO_WINS;
+            else if (!OPEN_LINE[closedBoards & ~xBoards] && !OPEN_LINE[closedBoards & ~oBoards]) result = GameEngine.DRAW;
+        }
+
+        active = (closedBoards & (1 << square)) != 0 ? ANY : square;
+        xToMove = !xToMove;
+        moveCount++;
+        lastMove = CELL_OF[board * 9 + square];
+    }
+
+    // Mask of the boards the side to move may play in (0 once the game is over)
+    int legalBoards() {
+        if (result != GameEngine.IN_PROGRESS) return 0;
+        return active == ANY ? Board.ALL & ~closedBoards : 1 << active;
+    }
+
+    // Mask of the free squares (bit = square) of one board
+    int empty(int board) {
+        return Board.ALL & ~(x[board] | o[board]);
+    }
+
+    // Fills moves with the legal cells and returns how many there are
+    int legalMoves(int[] moves) {
+        int count = 0;
+        for (int boards = legalBoards(); boards != 0; boards &= boards - 1) {
+            int board = Integer.numberOfTrailingZeros(boards);
+            for (int squares = empty(board); squares != 0; squares &= squares - 1) {
+                moves[count++] = CELL_OF[board * 9 + Integer.numberOfTrailingZeros(squares)];
+            }
+        }
+        return count;
+    }
+
+    // GameEngine.IN_PROGRESS, PLAYER_ONE_WINS (X), PLAYER_TWO_WINS (O) or DRAW
+    int result() {
+        return result;
+    }
+
+    boolean isXToMove() {
+        return xToMove;
+    }
+
+    // The board the next move must go in, or ANY
+    int active() {
+        return active;
+    }
+
+    // EMPTY, X or O
+    int mark(int cell) {
+        int board = BOARD_OF[cell], bit = 1 << SQUARE_OF[cell];
+        return (x[board] & bit) != 0 ? X : (o[board] & bit) != 0 ? O : EMPTY;
+    }
+
+    // X or O for a won board, else EMPTY (also when full)
+    int winner(int board) {
+        int bit = 1 << board;
+        return (xBoards & bit) != 0 ? X : (oBoards & bit) != 0 ? O : EMPTY;
+    }
+
+    boolean isClosed(int board) {
+        return (closedBoards & (1 << board)) != 0;
+    }
+
+    int moveCount() {
+        return moveCount;
+    }
+
+    int lastMove() {
+        return lastMove;
+    }
+}
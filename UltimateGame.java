@@ -0,0 +1,203 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// The Ultimate tic-tac-toe window, opened from the setup screen in place of
+// the classic grid. Series rules are the classic ones - first to roundsToWin
+// rounds, drawn rounds score nothing, the first move alternates - and the
+// nine boards share one BoardComponent: the cells the next move may take are
+// tinted and a won board carries its winner's big mark.
+//
+// Against the AI, O is played by UltimateSearch on its own thread with a
+// per-move budget picked by the difficulty. A reply that arrives after its
+// round has ended is dropped.
+final class UltimateGame {
+    // Thinking time per AI move by difficulty, Easy .. MCTS
+    private static final long[] BUDGET_MILLIS = {0, 100, 300, 1000, 2500, 2500};
+
+    private static final Color ACCENT_BLUE = new Color(66, 153, 225);
+    private static final Color ACCENT_GREEN = new Color(72, 187, 120);
+    private static final Color ACCENT_RED = new Color(245, 101, 101);
+    private static final Color ACCENT_PURPLE = new Color(159, 122, 234);
+    private static final Color TEXT_GRAY = new Color(160, 174, 192);
+    private static final Color BACKGROUND = new Color(247, 250, 252);
+
+    private final UltimateBoard game = new UltimateBoard();
+    private final String player1Name, player2Name;
+    private final boolean isVsAI;
+    private final long budgetMillis;
+    private final int roundsToWin;
+    private final SoundPlayer sound;
+    private final ResultOverlay overlay;
+    private final ExecutorService ai;          // null between two humans
+    private final UltimateSearch search;       // only touched on the ai thread
+    private JLabel turnLabel, scoreLabel;
+    private BoardComponent board;
+    private int p1Wins, p2Wins;
+    private boolean xFirst;
+    private int round;                         // bumped per round so stale AI replies can be spotted
+
+    UltimateGame(String player1Name, String player2Name, boolean isVsAI, int difficulty, int roundsToWin,
+                 boolean animate, SoundPlayer sound, JButton playAgain, JButton exit) {
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
+        this.isVsAI = isVsAI;
+        this.budgetMillis = BUDGET_MILLIS[difficulty];
+        this.roundsToWin = roundsToWin;
+        this.sound = sound;
+        overlay = new ResultOverlay(playAgain, exit, animate);
+        if (isVsAI) {
+            ai = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ultimate-ai");
+                thread.setDaemon(true);
+                return thread;
+            });
+            search = new UltimateSearch(System.nanoTime());
+        } else {
+            ai = null;
+            search = null;
+        }
+    }
+
+    void show() {
+        JFrame frame = new JFrame("X & O Ultimate - " + player1Name + " vs " + player2Name);
+        frame.getContentPane().setBackground(BACKGROUND);
+
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(BACKGROUND);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel topPanel = new JPanel(new GridLayout(2, 1, 0, 10));
+        topPanel.setBackground(BACKGROUND);
+        turnLabel = new JLabel("", SwingConstants.CENTER);
+        turnLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        turnLabel.setForeground(ACCENT_BLUE);
+        scoreLabel = new JLabel("", SwingConstants.CENTER);
+        scoreLabel.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        scoreLabel.setForeground(TEXT_GRAY);
+        topPanel.add(turnLabel);
+        topPanel.add(scoreLabel);
+
+        board = new BoardComponent(9, 9);
+        board.setBlocks(3, 3);
+        board.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        board.setPlayable(cell -> isHumanTurn() && game.isLegal(cell));
+        board.setHighlightPlayable(true);
+        board.setOnClick(cell -> {
+            if (!isHumanTurn() || !game.isLegal(cell)) return;
+            play(cell);
+            if (isVsAI && game.result() == GameEngine.IN_PROGRESS) requestAIMove();
+        });
+
+        mainPanel.add(topPanel, BorderLayout.NORTH);
+        mainPanel.add(board, BorderLayout.CENTER);
+        frame.add(mainPanel);
+        frame.setGlassPane(overlay);
+        frame.setSize(640, 760);
+        frame.setLocationRelativeTo(null);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setVisible(true);
+        newMatch();
+    }
+
+    private void newMatch() {
+        p1Wins = 0;
+        p2Wins = 0;
+        xFirst = new Random().nextBoolean();
+        updateScore();
+        startRound();
+    }
+
+    private void startRound() {
+        round++;
+        game.reset(xFirst);
+        board.clear();
+        board.repaint();
+        updateTurn();
+        if (isVsAI && !game.isXToMove()) requestAIMove();
+    }
+
+    // X is always player one, O the AI or player two
+    private boolean isHumanTurn() {
+        return game.result() == GameEngine.IN_PROGRESS && (!isVsAI || game.isXToMove());
+    }
+
+    private void play(int cell) {
+        game.play(cell);
+        board.setCell(cell, game.mark(cell));
+        int block = UltimateBoard.boardOf(cell);
+        board.setBlockMark(block, game.winner(block));
+        // The tinted cells follow the send-to rule, so they all may change
+        board.repaint();
+        sound.play("move");
+        updateTurn();
+        if (game.result() != GameEngine.IN_PROGRESS) roundOver();
+    }
+
+    private void requestAIMove() {
+        UltimateBoard position = new UltimateBoard();
+        position.copyFrom(game);
+        int requestedIn = round;
+        ai.execute(() -> {
+            int move = search.bestMove(position, budgetMillis);
+            SwingUtilities.invokeLater(() -> {
+                if (requestedIn == round && !game.isXToMove() && game.isLegal(move)) play(move);
+            });
+        });
+    }
+
+    private void updateTurn() {
+        if (game.result() != GameEngine.IN_PROGRESS) return;
+        String name = game.isXToMove() ? player1Name : player2Name;
+        if (isVsAI && !game.isXToMove()) {
+            turnLabel.setText("AI is thinking...");
+        } else {
+            turnLabel.setText("Turn: " + name + (game.active() == UltimateBoard.ANY ? " - any board" : ""));
+        }
+    }
+
+    private void updateScore() {
+        scoreLabel.setText("Score: " + scoreText());
+    }
+
+    private String scoreText() {
+        return player1Name + " [" + p1Wins + "] - [" + p2Wins + "] " + player2Name;
+    }
+
+    private void roundOver() {
+        int result = game.result();
+        if (result == GameEngine.DRAW) {
+            turnLabel.setText("Draw");
+            overlay.showResult("DRAW", "It's a Draw!\nWell played by both sides!", ACCENT_PURPLE, 1500, this::afterRound);
+            return;
+        }
+        boolean playerOneWon = result == GameEngine.PLAYER_ONE_WINS;
+        if (playerOneWon) p1Wins++;
+        else p2Wins++;
+        String winner = playerOneWon ? player1Name : player2Name;
+        turnLabel.setText(winner + " wins the round");
+        boolean isPlayerWin = playerOneWon || !isVsAI;
+        sound.play(isPlayerWin ? "win" : "lose");
+        String message = isPlayerWin ?
+            "Congratulations " + winner + "!\nYou won this round!" :
+            winner + " wins!\nBetter luck next time!";
+        overlay.showResult(isPlayerWin ? "VICTORY!" : "DEFEAT!", message,
+            isPlayerWin ? ACCENT_GREEN : ACCENT_BLUE, 2000, this::afterRound);
+    }
+
+    private void afterRound() {
+        updateScore();
+        if (p1Wins == roundsToWin || p2Wins == roundsToWin) {
+            boolean isPlayerChampion = p1Wins == roundsToWin;
+            String champion = isPlayerChampion ? player1Name : player2Name;
+            String message = champion + " is the CHAMPION!\n" + (isPlayerChampion ? "Outstanding victory!" : "Impressive performance!");
+            overlay.showChoice("CHAMPION!", message, "Final Score: " + scoreText(),
+                isPlayerChampion ? ACCENT_GREEN : ACCENT_RED, "Play Again", this::newMatch, "Exit Game", () -> System.exit(0));
+        } else {
+            xFirst = !xFirst;
+            startRound();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Monte Carlo tree search (UCT) for Ultimate tic-tac-toe within a wall-clock
+// budget per move, on the UctTree shared with MonteCarloSearch. The tree is
+// refilled for every move, and playouts are uniformly random moves on a
+// scratch UltimateBoard - so a search allocates nothing and spends its time
+// in the board's table lookups.
+//
+//   java UltimateSearch [--millis M] [--games N] [--seed S] [--exploration C]
+//
+// measures playouts per second from the empty board, then plays N games
+// against a random mover.
+final class UltimateSearch {
+    private static final int DEFAULT_NODES = 1 << 20;
+    private static final int TIME_CHECK_MASK = 63;
+
+    // [mask * 9 + n]: the n-th set square of a 9-bit mask, for random picks
+    private static final byte[] NTH_SQUARE = new byte[(Board.ALL + 1) * 9];
+
+    static {
+        for (int mask = 0; mask <= Board.ALL; mask++) {
+            int n = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) NTH_SQUARE[mask * 9 + n++] = (byte) Integer.numberOfTrailingZeros(rest);
+        }
+    }
+
+    private final UctTree tree;
+    private final SplittableRandom random;
+    private final UltimateBoard scratch = new UltimateBoard();
+    private final int[] path = new int[UltimateBoard.CELLS + 1];
+    private final int[] moves = new int[UltimateBoard.CELLS];
+    private long lastPlayouts;
+    private double lastValue;
+
+    UltimateSearch(long seed) {
+        this(UctTree.DEFAULT_EXPLORATION, DEFAULT_NODES, seed);
+    }
+
+    UltimateSearch(double exploration, int maxNodes, long seed) {
+        tree = new UctTree(maxNodes, exploration);
+        random = new SplittableRandom(seed);
+    }
+
+    int bestMove(UltimateBoard position, long budgetMillis) {
+        return bestMove(position, budgetMillis, Long.MAX_VALUE);
+    }
+
+    // Searches until the budget or the playout cap runs out and returns the
+    // most visited move; -1 if the game is already over
+    int bestMove(UltimateBoard position, long budgetMillis, long maxPlayouts) {
+        lastPlayouts = 0;
+        lastValue = 0;
+        int count = position.legalMoves(moves);
+        if (count == 0) return -1;
+        // A move that ends the game needs no search
+        int winner = position.isXToMove() ? GameEngine.PLAYER_ONE_WINS : GameEngine.PLAYER_TWO_WINS;
+        for (int i = 0; i < count; i++) {
+            scratch.copyFrom(position);
+            scratch.play(moves[i]);
+            if (scratch.result() == winner) {
+                lastValue = 1;
+                return moves[i];
+            }
+        }
+        if (count == 1) return moves[0];
+
+        int root = tree.reset();
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        long playouts = 0;
+        while (playouts < maxPlayouts) {
+            iterate(position);
+            playouts++;
+            if ((playouts & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadline) break;
+        }
+        lastPlayouts = playouts;
+
+        int best = tree.mostVisitedChild(root);
+        lastValue = tree.value(best);
+        return tree.move(best);
+    }
+
+    long lastPlayouts() {
+        return lastPlayouts;
+    }
+
+    // Share of the chosen move's playouts that the mover won, draws as half
+    double lastValue() {
+        return lastValue;
+    }
+
+    // Select down the tree, expand one leaf, play it out, back the result up
+    private void iterate(UltimateBoard position) {
+        UltimateBoard board = scratch;
+        board.copyFrom(position);
+        int node = 0, depth = 0;
+        path[0] = 0;
+        while (!tree.isLeaf(node)) {
+            node = tree.select(node);
+            board.play(tree.move(node));
+            path[++depth] = node;
+        }
+        if (board.result() == GameEngine.IN_PROGRESS && (node == 0 || tree.visits(node) > 0)
+                && tree.expand(node, moves, board.legalMoves(moves))) {
+            node = tree.randomChild(node, random);
+            board.play(tree.move(node));
+            path[++depth] = node;
+        }
+        int result = playout(board);
+
+        int rootWinner = position.isXToMove() ? GameEngine.PLAYER_ONE_WINS : GameEngine.PLAYER_TWO_WINS;
+        tree.backup(path, depth, result == GameEngine.DRAW ? 1 : result == rootWinner ? 2 : 0);
+    }
+
+    // Random moves to the end of the game; returns the result
+    private int playout(UltimateBoard board) {
+        while (board.result() == GameEngine.IN_PROGRESS) {
+            int slot = randomSlot(board, random);
+            board.play(slot >> 4, slot & 15);
+        }
+        return board.result();
+    }
+
+    // A uniformly random legal move as a cell
+    static int randomMove(UltimateBoard board, SplittableRandom random) {
+        int slot = randomSlot(board, random);
+        return UltimateBoard.cell(slot >> 4, slot & 15);
+    }
+
+    // A uniformly random legal move as board << 4 | square, without filling
+    // a move list
+    private static int randomSlot(UltimateBoard board, SplittableRandom random) {
+        int boards = board.legalBoards();
+        if ((boards & (boards - 1)) == 0) {
+            int b = Integer.numberOfTrailingZeros(boards), empty = board.empty(b);
+            return b << 4 | nthSquare(empty, random.nextInt(Integer.bitCount(empty)));
+        }
+        int total = 0;
+        for (int rest = boards; rest != 0; rest &= rest - 1) total += Integer.bitCount(board.empty(Integer.numberOfTrailingZeros(rest)));
+        int n = random.nextInt(total);
+        for (int rest = boards; ; rest &= rest - 1) {
+            int b = Integer.numberOfTrailingZeros(rest), empty = board.empty(b), free = Integer.bitCount(empty);
+            if (n < free) return b << 4 | nthSquare(empty, n);
+            n -= free;
+        }
+    }
+
+    private static int nthSquare(int mask, int n) {
+        return NTH_SQUARE[mask * 9 + n];
+    }
+
+    public static void main(String[] args) {
+        long millis = 1000;
+        int games = 10;
+        long seed = System.nanoTime();
+        double exploration = UctTree.DEFAULT_EXPLORATION;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--millis": millis = Long.parseLong(args[++i]); break;
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--exploration": exploration = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        UltimateSearch search = new UltimateSearch(exploration, DEFAULT_NODES, seed);
+        UltimateBoard board = new UltimateBoard();
+        search.bestMove(board, millis);
+        System.out.printf(Locale.ROOT, "%d playouts in %d ms from the empty board: %.0f playouts/s%n",
+            search.lastPlayouts(), millis, search.lastPlayouts() * 1000.0 / millis);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int wins = 0, draws = 0, losses = 0;
+        for (int game = 0; game < games; game++) {
+            // The search plays X in even games and O in odd ones, X moving first
+            boolean searchIsX = game % 2 == 0;
+            board.reset(true);
+            while (board.result() == GameEngine.IN_PROGRESS) {
+                board.play(board.isXToMove() == searchIsX ? search.bestMove(board, millis) : randomMove(board, random));
+            }
+            int result = board.result();
+            if (result == GameEngine.DRAW) draws++;
+            else if ((result == GameEngine.PLAYER_ONE_WINS) == searchIsX) wins++;
+            else losses++;
+        }
+        if (games > 0) System.out.printf("Against a random mover: %d wins, %d draws, %d losses%n", wins, draws, losses);
+    }
+}
@@ -0,0 +1,107 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary framing for GameServer. Every frame starts with one header byte,
+// type in the high nibble and a small argument in the low nibble, so a move
+// is a single byte. Only frames that carry a name or a snapshot are longer:
+//
+//   HELLO  [1|rounds] [len] name       client joins the queue
+//   MOVE   [2|pos]                     a move (client) or an accepted move (server)
+//   READY  [3|0]                       client is ready for the next round
+//   WAIT   [4|0]                       queued, no opponent yet
+//   START  [5|side] [rounds] [len] name
+//   STATE  [6|0] int                   MatchCodec snapshot at the start of each round
+//   LEFT   [7|0]                       the opponent disconnected
+//   ERROR  [8|code]
+//
+// Between STATE frames a client only ever receives MOVE deltas. A binary
+// HELLO header is never printable ASCII, which is how the server tells
+// binary clients from text ones.
+final class WireProtocol {
+    static final int HELLO = 1;
+    static final int MOVE = 2;
+    static final int READY = 3;
+    static final int WAIT = 4;
+    static final int START = 5;
+    static final int STATE = 6;
+    static final int LEFT = 7;
+    static final int ERROR = 8;
+
+    static final int ERROR_BAD_FRAME = 1;
+    static final int ERROR_NOT_IN_MATCH = 2;
+    static final int ERROR_ILLEGAL_MOVE = 3;
+    static final int ERROR_BAD_ROUNDS = 4;
+
+    static final int MAX_NAME = 32;
+
+    private WireProtocol() {
+    }
+
+    static int type(int header) {
+        return (header & 0xFF) >>> 4;
+    }
+
+    static int arg(int header) {
+        return header & 0xF;
+    }
+
+    // Length of the frame at offset, -1 if more bytes are needed, 0 if malformed
+    static int frameLength(ByteBuffer buffer, int offset, int limit) {
+        if (offset >= limit) return -1;
+        switch (type(buffer.get(offset))) {
+            case HELLO:
+                return offset + 1 < limit ? withName(2, buffer.get(offset + 1)) : -1;
+            case START:
+                return offset + 2 < limit ? withName(3, buffer.get(offset + 2)) : -1;
+            case STATE:
+                return 5;
+            case MOVE: case READY: case WAIT: case LEFT: case ERROR:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static int withName(int fixed, byte length) {
+        return (length & 0xFF) <= MAX_NAME ? fixed + (length & 0xFF) : 0;
+    }
+
+    static void put(ByteBuffer out, int type, int arg) {
+        out.put((byte) (type << 4 | arg));
+    }
+
+    static void putHello(ByteBuffer out, int roundsToWin, String name) {
+        put(out, HELLO, roundsToWin);
+        putName(out, name);
+    }
+
+    static void putStart(ByteBuffer out, int side, int roundsToWin, String opponent) {
+        put(out, START, side);
+        out.put((byte) roundsToWin);
+        putName(out, opponent);
+    }
+
+    static void putState(ByteBuffer out, int packed) {
+        put(out, STATE, 0);
+        out.putInt(packed);
+    }
+
+    // ASCII only, so names need no encoder
+    private static void putName(ByteBuffer out, String name) {
+        int length = Math.min(name.length(), MAX_NAME);
+        out.put((byte) length);
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            out.put((byte) (c < 128 ? c : '?'));
+        }
+    }
+
+    // Name of a HELLO or START frame at offset
+    static String name(ByteBuffer buffer, int offset) {
+        int lengthAt = offset + (type(buffer.get(offset)) == START ? 2 : 1);
+        int length = buffer.get(lengthAt) & 0xFF;
+        byte[] bytes = new byte[length];
+        buffer.get(lengthAt + 1, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
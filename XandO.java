@@ -1,27 +1,53 @@
 import javax.swing.*;
-import javax.sound.sampled.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
+import java.awt.font.FontRenderContext;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.io.IOException;
 import java.net.URL;
 
 public class XandO {
-    private ArrayList<Integer> playerOne = new ArrayList<>();
-    private ArrayList<Integer> playerTwo = new ArrayList<>();
+    // Work the first frame does not need - fonts and the AI tables - runs on
+    // this thread while the start screen is built and painted, rather than
+    // on the event thread ahead of it
+    private static final ExecutorService PRELOAD = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-preload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // Every "Segoe UI" style and size the screens use
+    private static final int[][] FONTS = {
+        {Font.BOLD, 14}, {Font.BOLD, 16}, {Font.BOLD, 18}, {Font.BOLD, 20}, {Font.BOLD, 28}, {Font.BOLD, 48},
+        {Font.PLAIN, 14}, {Font.PLAIN, 16}, {Font.PLAIN, 18},
+    };
+
+    private final MatchState match = new MatchState(2);
+    private final GameEngine engine = match.engine();
+    private final AIMoveScheduler aiScheduler = new AIMoveScheduler(new AIPlayer());
+    private final SoundPlayer sound = new SoundPlayer();
+    private final MatchLog matchLog = MatchLog.open(MatchLog.defaultPath());
     private String player1Name, player2Name;
-    private int flag = 0;
-    private int roundsToWin = 2;
-    private int p1Wins = 0, p2Wins = 0;
     private boolean isVsAI = false;
     private int difficulty = 1;
     private boolean isPlayerFirst = true;
     private JFrame startFrame, welcomeFrame, gameFrame;
     private JLabel turnLabel, scoreLabel;
-    private JButton[] buttons = new JButton[9];
+    private BoardComponent board;
+    private ResultOverlay overlay;
+    private boolean animate = !Boolean.getBoolean("xando.skipAnimations");
     private Timer animationTimer;
     private boolean gameInProgress = true;
 
+    // Online play: set by --connect host:port, then the server runs the match
+    private final String serverAddress;
+    private NetworkClient network;
+    private int onlineSide;   // 1 = X, 2 = O
+
     // Color scheme
     private final Color PRIMARY_DARK = new Color(26, 32, 44);      // Dark blue-gray
     private final Color PRIMARY_LIGHT = new Color(45, 55, 72);     // Medium blue-gray
@@ -34,8 +60,85 @@ public class XandO {
     private final Color BACKGROUND = new Color(247, 250, 252);
     private final Color CARD_WHITE = new Color(255, 255, 255);
 
+    XandO() {
+        this(null);
+    }
+
+    XandO(String serverAddress) {
+        this.serverAddress = serverAddress;
+        addShutdownHook();
+        if (Metrics.ENABLED) {
+            Metrics.watchSound(sound::queueDepth);
+            Metrics.watchEventQueue();
+        }
+    }
+
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new XandO().showStartScreen());
+        String server = null;
+        boolean trainingRun = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--connect": server = args[++i]; break;
+                case "--training-run": trainingRun = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        preload();
+        String serverAddress = server;
+        boolean training = trainingRun;
+        SwingUtilities.invokeLater(() -> {
+            XandO game = new XandO(serverAddress);
+            game.showStartScreen();
+            if (training) game.trainingRun();
+        });
+    }
+
+    // Loads the fonts and solves the AI tables in the background; the first
+    // lookup of a font name is the slow part, so later screens find it cached
+    static void preload() {
+        PRELOAD.execute(() -> {
+            FontRenderContext context = new FontRenderContext(null, true, true);
+            for (int[] font : FONTS) new Font("Segoe UI", font[0], font[1]).getStringBounds("X & O 0123456789", context);
+        });
+        PRELOAD.execute(() -> {
+            PositionBook.classic();
+            PerfectPlayTable.instance();
+        });
+    }
+
+    // Class-data-sharing training run (see cds.sh): opens every screen once
+    // so their classes end up in the archive, waits for the preload, exits
+    private void trainingRun() {
+        startFrame.dispose();
+        showWelcomeScreen();
+        welcomeFrame.dispose();
+        player1Name = "Player";
+        player2Name = "AI";
+        isVsAI = true;
+        drawGrid();
+        try {
+            PRELOAD.submit(() -> { }).get();
+        } catch (InterruptedException | ExecutionException e) {
+            // Exit with whatever has been loaded so far
+        }
+        System.exit(0);
+    }
+
+    // With -Dxando.startupTrace=true, prints the time from JVM start until
+    // the start screen has been painted and the event thread is free again
+    private static void traceFirstFrame(Window window) {
+        if (!Boolean.getBoolean("xando.startupTrace")) return;
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                SwingUtilities.invokeLater(() -> {
+                    long now = System.currentTimeMillis();
+                    System.err.println("First frame after " + (now - ManagementFactory.getRuntimeMXBean().getStartTime()) + " ms");
+                });
+            }
+        });
     }
 
     @SuppressWarnings("unused")
@@ -54,47 +157,7 @@ public class XandO {
     }
 
     private void playSound(String soundType) {
-        try {
-            // Simple beep sounds using different frequencies
-            switch (soundType) {
-                case "win":
-                    playTone(800, 200); // High pitch victory
-                    Thread.sleep(100);
-                    playTone(1000, 300);
-                    break;
-                case "lose":
-                    playTone(300, 400); // Low pitch defeat
-                    Thread.sleep(100);
-                    playTone(200, 400);
-                    break;
-                case "move":
-                    playTone(600, 100); // Quick move sound
-                    break;
-            }
-        } catch (Exception e) {
-            System.err.println("Sound error: " + e.getMessage());
-        }
-    }
-
-    private void playTone(int frequency, int duration) {
-        try {
-            byte[] buffer = new byte[duration * 44100 / 1000];
-            for (int i = 0; i < buffer.length; i++) {
-                double angle = 2.0 * Math.PI * i * frequency / 44100;
-                buffer[i] = (byte) (Math.sin(angle) * 127);
-            }
-            
-            AudioFormat format = new AudioFormat(44100, 8, 1, true, false);
-            DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-            SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
-            line.open(format);
-            line.start();
-            line.write(buffer, 0, buffer.length);
-            line.drain();
-            line.close();
-        } catch (Exception e) {
-            // Silently handle audio errors
-        }
+        sound.play(soundType);
     }
 
     void showStartScreen() {
@@ -135,7 +198,7 @@ public class XandO {
 
         String[] features = {
             "→ The ultimate test of your Tic-Tac-Toe skills",
-            "→ Unbeatable AI with 3 difficulty levels",
+            "→ Unbeatable AI with 5 difficulty levels",
             "→ Fast-paced matches with best of 3 or 5",
             "→ Modern, clean interface design",
             "→ Victory celebrations and sound effects",
@@ -167,6 +230,7 @@ public class XandO {
         startFrame.add(mainPanel);
         startFrame.setSize(500, 600);
         startFrame.setLocationRelativeTo(null);
+        traceFirstFrame(startFrame);
         startFrame.setVisible(true);
     }
 
@@ -258,8 +322,21 @@ public class XandO {
         styleComboBox(matchMode);
         formPanel.add(matchMode, gbc);
 
-        // AI checkbox
+        // Board: the classic grid or Ultimate's nine boards
         gbc.gridx = 0; gbc.gridy = 3; gbc.weightx = 0;
+        JLabel boardLabel = new JLabel("Board:");
+        boardLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        boardLabel.setForeground(PRIMARY_DARK);
+        formPanel.add(boardLabel, gbc);
+
+        gbc.gridx = 1; gbc.weightx = 1.0;
+        String[] boardOptions = {"Classic 3x3", "Ultimate 9x9"};
+        JComboBox<String> boardBox = new JComboBox<>(boardOptions);
+        styleComboBox(boardBox);
+        formPanel.add(boardBox, gbc);
+
+        // AI checkbox
+        gbc.gridx = 0; gbc.gridy = 4; gbc.weightx = 0;
         JLabel aiLabel = new JLabel("Play vs AI:");
         aiLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         aiLabel.setForeground(PRIMARY_DARK);
@@ -276,35 +353,63 @@ public class XandO {
         formPanel.add(aiCheckBox, gbc);
 
         // Difficulty
-        gbc.gridx = 0; gbc.gridy = 4; gbc.weightx = 0;
+        gbc.gridx = 0; gbc.gridy = 5; gbc.weightx = 0;
         JLabel diffLabel = new JLabel("AI Difficulty:");
         diffLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         diffLabel.setForeground(PRIMARY_DARK);
         formPanel.add(diffLabel, gbc);
 
         gbc.gridx = 1; gbc.weightx = 1.0;
-        String[] diffOptions = {"Easy", "Medium", "Hard (Unbeatable)"};
+        String[] diffOptions = {"Easy", "Medium", "Hard (Unbeatable)", "Search (Alpha-Beta)", "MCTS (Monte Carlo)"};
         JComboBox<String> difficultyBox = new JComboBox<>(diffOptions);
         styleComboBox(difficultyBox);
         difficultyBox.setEnabled(false);
         aiCheckBox.addActionListener(e -> difficultyBox.setEnabled(aiCheckBox.isSelected()));
         formPanel.add(difficultyBox, gbc);
 
+        // Animations: off skips the round results and the AI's thinking pause
+        gbc.gridx = 0; gbc.gridy = 6; gbc.weightx = 0;
+        JLabel animateLabel = new JLabel("Animations:");
+        animateLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        animateLabel.setForeground(PRIMARY_DARK);
+        formPanel.add(animateLabel, gbc);
+
+        gbc.gridx = 1;
+        JCheckBox animateCheckBox = new JCheckBox();
+        animateCheckBox.setBackground(CARD_WHITE);
+        animateCheckBox.setSelected(animate);
+        formPanel.add(animateCheckBox, gbc);
+
+        // Online: the opponent comes from the server
+        if (serverAddress != null) {
+            player2Field.setText("Online opponent");
+            player2Field.setEnabled(false);
+            aiCheckBox.setEnabled(false);
+            boardBox.setEnabled(false);
+        }
+
         // Start button
         JButton startButton = createModernButton("Start Game", ACCENT_GREEN);
         startButton.addActionListener(e -> {
             player1Name = player1Field.getText().trim();
             player2Name = player2Field.getText().trim();
-            roundsToWin = matchMode.getSelectedIndex() == 0 ? 2 : 3;
+            int roundsToWin = matchMode.getSelectedIndex() == 0 ? 2 : 3;
             isVsAI = aiCheckBox.isSelected();
             difficulty = difficultyBox.getSelectedIndex() + 1;
+            animate = animateCheckBox.isSelected();
 
             if (player1Name.isEmpty()) {
                 showErrorDialog("Please enter Player 1 name.");
+            } else if (serverAddress != null) {
+                connectOnline(roundsToWin, startButton);
             } else if (!isVsAI && player2Name.isEmpty()) {
                 showErrorDialog("Please enter Player 2 name or enable AI.");
             } else if (!isVsAI && player1Name.equals(player2Name)) {
                 showErrorDialog("Player names must be different!");
+            } else if (boardBox.getSelectedIndex() == 1) {
+                welcomeFrame.dispose();
+                new UltimateGame(player1Name, player2Name, isVsAI, difficulty, roundsToWin, animate, sound,
+                    createModernButton("Play Again", CARD_WHITE), createModernButton("Exit Game", PRIMARY_DARK)).show();
             } else {
                 welcomeFrame.dispose();
                 // Random start except Hard AI always starts
@@ -313,14 +418,11 @@ public class XandO {
                 } else {
                     isPlayerFirst = new Random().nextBoolean();
                 }
+                match.newMatch(roundsToWin, isPlayerFirst);
+                logMatchStart();
                 drawGrid();
                 if (!isPlayerFirst && isVsAI) {
-                    Timer aiDelay = new Timer(800, evt -> {
-                        aiMove();
-                        ((Timer) evt.getSource()).stop();
-                    });
-                    aiDelay.setRepeats(false);
-                    aiDelay.start();
+                    scheduleAIMove(800);
                 }
             }
         });
@@ -330,7 +432,7 @@ public class XandO {
         mainPanel.add(startButton, BorderLayout.SOUTH);
 
         welcomeFrame.add(mainPanel);
-        welcomeFrame.setSize(400, 500);
+        welcomeFrame.setSize(400, 600);
         welcomeFrame.setLocationRelativeTo(null);
         welcomeFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         welcomeFrame.setVisible(true);
@@ -373,107 +475,67 @@ public class XandO {
         turnLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
         turnLabel.setForeground(ACCENT_BLUE);
 
-        scoreLabel = new JLabel("Score: " + player1Name + " [" + p1Wins + "] - [" + p2Wins + "] " + player2Name, SwingConstants.CENTER);
+        scoreLabel = new JLabel("Score: " + player1Name + " [" + match.p1Wins() + "] - [" + match.p2Wins() + "] " + player2Name, SwingConstants.CENTER);
         scoreLabel.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         scoreLabel.setForeground(TEXT_GRAY);
 
         topPanel.add(turnLabel);
         topPanel.add(scoreLabel);
 
-        // Game grid with buttons
-        JPanel gridPanel = new JPanel(new GridLayout(3, 3, 8, 8));
-        gridPanel.setBackground(BACKGROUND);
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(20, 40, 20, 40));
-
-        for (int i = 0; i < 9; i++) {
-            buttons[i] = new JButton();
-            buttons[i].setFont(new Font("Segoe UI", Font.BOLD, 48));
-            buttons[i].setBackground(CARD_WHITE);
-            buttons[i].setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(226, 232, 240), 2),
-                BorderFactory.createEmptyBorder(10, 10, 10, 10)
-            ));
-            buttons[i].setFocusPainted(false);
-            buttons[i].setCursor(new Cursor(Cursor.HAND_CURSOR));
-            buttons[i].setPreferredSize(new Dimension(80, 80));
-
-            int pos = i + 1;
-            buttons[i].addActionListener(e -> {
-                if (gameInProgress) {
-                    if (isVsAI) {
-                        // In AI mode, check if it's really the human's turn
-                        boolean isHumanTurn = (isPlayerFirst && flag % 2 == 0) || (!isPlayerFirst && flag % 2 == 1);
-                        if (isHumanTurn) {
-                            JButton clickedBtn = (JButton) e.getSource();
-                            if (clickedBtn.getText().isEmpty()) {
-                                buttonClicked(clickedBtn, pos);
-                                // Schedule AI move after human move
-                                if (gameInProgress) {
-                                    SwingUtilities.invokeLater(() -> {
-                                        Timer aiDelay = new Timer(difficulty == 3 ? 800 : 400, evt -> {
-                                            if (gameInProgress) {
-                                                aiMove();
-                                            }
-                                            ((Timer) evt.getSource()).stop();
-                                        });
-                                        aiDelay.setRepeats(false);
-                                        aiDelay.start();
-                                    });
-                                }
+        // One painted component for the whole grid
+        board = new BoardComponent(3, 3);
+        board.setBorder(BorderFactory.createEmptyBorder(20, 40, 20, 40));
+        board.setPlayable(index -> gameInProgress && engine.isEmpty(index + 1));
+        board.setOnClick(index -> {
+            int pos = index + 1;
+            if (gameInProgress) {
+                if (network != null) {
+                    // Online: the move is applied when the server echoes it
+                    boolean isOurTurn = engine.isPlayerOneToMove() == (onlineSide == 1);
+                    if (isOurTurn && engine.isEmpty(pos)) network.send("MOVE " + pos);
+                } else if (isVsAI) {
+                    // In AI mode, check if it's really the human's turn
+                    boolean isHumanTurn = engine.isPlayerOneToMove();
+                    if (isHumanTurn) {
+                        if (engine.isEmpty(pos)) {
+                            buttonClicked(pos);
+                            // Schedule AI move after human move
+                            if (gameInProgress) {
+                                scheduleAIMove(difficulty == 3 ? 800 : 400);
                             }
                         }
-                    } else {
-                        // Human vs Human mode
-                        buttonClicked((JButton) e.getSource(), pos);
-                    }
-                }
-            });
-
-            // Hover effect for buttons
-            buttons[i].addMouseListener(new MouseAdapter() {
-                @Override
-                public void mouseEntered(MouseEvent e) {
-                    JButton btn = (JButton) e.getSource();
-                    if (btn.getText().isEmpty() && gameInProgress) {
-                        btn.setBackground(new Color(237, 242, 247));
-                    }
-                }
-                @Override
-                public void mouseExited(MouseEvent e) {
-                    JButton btn = (JButton) e.getSource();
-                    if (btn.getText().isEmpty()) {
-                        btn.setBackground(CARD_WHITE);
                     }
+                } else {
+                    // Human vs Human mode
+                    buttonClicked(pos);
                 }
-            });
-
-            gridPanel.add(buttons[i]);
-        }
+            }
+        });
 
         mainPanel.add(topPanel, BorderLayout.NORTH);
-        mainPanel.add(gridPanel, BorderLayout.CENTER);
+        mainPanel.add(board, BorderLayout.CENTER);
 
         gameFrame.add(mainPanel);
+        // Results are drawn over the board rather than in modal dialogs
+        overlay = new ResultOverlay(createModernButton("Play Again", CARD_WHITE), createModernButton("Exit Game", PRIMARY_DARK), animate);
+        gameFrame.setGlassPane(overlay);
         gameFrame.setSize(500, 600);
         gameFrame.setLocationRelativeTo(null);
         gameFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         gameFrame.setVisible(true);
     }
 
-    void buttonClicked(JButton btn, int pos) {
-        if (!btn.getText().equals("") || !gameInProgress) return;
+    void buttonClicked(int pos) {
+        if (!gameInProgress || !engine.isLegal(pos)) return;
 
         // Player 1's turn (X)
-        if ((flag % 2 == 0 && isPlayerFirst) || (flag % 2 == 1 && !isPlayerFirst)) {
-            btn.setText("X");
-            btn.setForeground(ACCENT_RED);
-            btn.setBackground(new Color(254, 242, 242));
-            playerOne.add(pos);
+        if (engine.isPlayerOneToMove()) {
+            playMove(pos);
+            renderCell(pos);
             turnLabel.setText("Turn: " + (isVsAI ? "AI" : player2Name));
             playSound("move");
             
-            if (checkWinner(playerOne)) {
-                p1Wins++;
+            if (engine.result() == GameEngine.PLAYER_ONE_WINS) {
                 gameInProgress = false;
                 playSound("win");
                 showWinnerCelebration(player1Name, true);
@@ -482,452 +544,117 @@ public class XandO {
         }
         // Player 2's turn (O) - only in human vs human mode
         else if (!isVsAI) {
-            btn.setText("O");
-            btn.setForeground(ACCENT_BLUE);
-            btn.setBackground(new Color(239, 246, 255));
-            playerTwo.add(pos);
+            playMove(pos);
+            renderCell(pos);
             turnLabel.setText("Turn: " + player1Name);
             playSound("move");
             
-            if (checkWinner(playerTwo)) {
-                p2Wins++;
+            if (engine.result() == GameEngine.PLAYER_TWO_WINS) {
                 gameInProgress = false;
                 playSound("win");
                 showWinnerCelebration(player2Name, false);
                 return;
             }
         }
-        flag++;
-        if (flag == 9 && !checkWinner(playerOne) && !checkWinner(playerTwo)) {
+        if (engine.result() == GameEngine.DRAW) {
             gameInProgress = false;
             showDrawDialog();
         }
     }
 
-    void aiMove() {
-        if (!gameInProgress || flag >= 9 || checkWinner(playerOne) || checkWinner(playerTwo)) {
+    // The move is computed off the EDT; minDisplayMillis is the least time
+    // the AI appears to think, not extra latency on top of the computation
+    private void scheduleAIMove(long minDisplayMillis) {
+        if (!gameInProgress || engine.isPlayerOneToMove()) return;
+        // Without animations the AI answers as soon as its move is ready
+        aiScheduler.requestMove(engine, difficulty, animate ? minDisplayMillis : 0, this::aiMove);
+    }
+
+    void aiMove(int move) {
+        if (!gameInProgress || engine.isPlayerOneToMove() || engine.result() != GameEngine.IN_PROGRESS) {
             return;
         }
 
-        int move = getAIMove();
-        if (move > 0 && move <= 9 && buttons[move - 1].getText().isEmpty()) {
-            buttons[move - 1].setText("O");
-            buttons[move - 1].setForeground(ACCENT_BLUE);
-            buttons[move - 1].setBackground(new Color(239, 246, 255));
-            playerTwo.add(move);
+        if (playMove(move)) {
+            renderCell(move);
             turnLabel.setText("Turn: " + player1Name);
             playSound("move");
             
-            if (checkWinner(playerTwo)) {
-                p2Wins++;
+            if (engine.result() == GameEngine.PLAYER_TWO_WINS) {
                 gameInProgress = false;
                 playSound("lose");
                 showWinnerCelebration(isVsAI ? "AI" : player2Name, false);
                 return;
             }
             
-            flag++;
-            if (flag == 9 && !checkWinner(playerOne) && !checkWinner(playerTwo)) {
+            if (engine.result() == GameEngine.DRAW) {
                 gameInProgress = false;
                 showDrawDialog();
             }
         }
     }
 
-    // Enhanced unbeatable AI strategy for hard mode
-    private int getAIMove() {
-        switch (difficulty) {
-            case 1: // Easy: Random with occasional good moves
-                if (new Random().nextInt(10) < 3) { // 30% chance of smart move
-                    return getSmartMove();
-                }
-                return getRandomMove();
-
-            case 2: // Medium: Basic strategy
-                return getMediumMove();
-
-            case 3: // Hard: Unbeatable strategy
-                return getUnbeatableMove();
-
-            default:
-                return getRandomMove();
-        }
-    }
-
-    private int getRandomMove() {
-        ArrayList<Integer> available = new ArrayList<>();
-        for (int i = 0; i < 9; i++)
-            if (buttons[i].getText().isEmpty()) available.add(i + 1);
-        if (available.isEmpty()) return 5;
-        return available.get(new Random().nextInt(available.size()));
-    }
-
-    private int getSmartMove() {
-        // Try to win
-        ArrayList<Integer> winMoves = getWinningMove(playerTwo);
-        if (!winMoves.isEmpty() && winMoves.get(0) != -1) return winMoves.get(0);
-        
-        // Block opponent
-        ArrayList<Integer> blockMoves = getWinningMove(playerOne);
-        if (!blockMoves.isEmpty() && blockMoves.get(0) != -1) return blockMoves.get(0);
-        
-        return getRandomMove();
-    }
-
-    private int getMediumMove() {
-        // 1. Win if possible
-        ArrayList<Integer> winMoves = getWinningMove(playerTwo);
-        if (!winMoves.isEmpty() && winMoves.get(0) != -1) return winMoves.get(0);
-        
-        // 2. Block opponent's win
-        ArrayList<Integer> blockMoves = getWinningMove(playerOne);
-        if (!blockMoves.isEmpty() && blockMoves.get(0) != -1) return blockMoves.get(0);
-        
-        // 3. Take center if available
-        if (buttons[4].getText().isEmpty()) return 5;
-        
-        // 4. Take corner
-        int[] corners = {1, 3, 7, 9};
-        for (int corner : corners)
-            if (buttons[corner - 1].getText().isEmpty()) return corner;
-        
-        // 5. Take edge
-        int[] edges = {2, 4, 6, 8};
-        for (int edge : edges)
-            if (buttons[edge - 1].getText().isEmpty()) return edge;
-        
-        return getRandomMove();
-    }
-
-    // COMPLETELY UNBEATABLE AI - Uses perfect minimax-inspired strategy
-    private int getUnbeatableMove() {
-        // STRATEGY 1: Win immediately if possible (highest priority)
-        ArrayList<Integer> winMoves = getWinningMove(playerTwo);
-        if (!winMoves.isEmpty() && winMoves.get(0) != -1) {
-            return winMoves.get(0);
-        }
-        
-        // STRATEGY 2: Block opponent's immediate win (second priority)
-        ArrayList<Integer> blockMoves = getWinningMove(playerOne);
-        if (!blockMoves.isEmpty() && blockMoves.get(0) != -1) {
-            return blockMoves.get(0);
-        }
-        
-        // STRATEGY 3: Create a fork (two ways to win simultaneously)
-        int forkMove = createFork(playerTwo, playerOne);
-        if (forkMove != -1) return forkMove;
-        
-        // STRATEGY 4: Block opponent's potential forks
-        int blockFork = blockOpponentFork(playerOne, playerTwo);
-        if (blockFork != -1) return blockFork;
-        
-        // STRATEGY 5: Opening move optimization (first move)
-        if (playerTwo.isEmpty() && playerOne.isEmpty()) {
-            // Always start with corner for maximum winning potential
-            return 1; // Top-left corner
-        }
-        
-        // STRATEGY 6: Second move as AI (respond to opponent's first move)
-        if (playerTwo.isEmpty() && playerOne.size() == 1) {
-            int opponentMove = playerOne.get(0);
-            if (opponentMove == 5) {
-                // Opponent took center, take any corner
-                int[] corners = {1, 3, 7, 9};
-                return corners[0];
-            } else {
-                // Opponent took corner or edge, take center
-                if (buttons[4].getText().isEmpty()) return 5;
-                // If center taken, take opposite corner
-                return getOppositeCorner();
-            }
-        }
-        
-        // STRATEGY 7: Advanced positional play
-        // If we have center and opponent has corner, take adjacent edge to create threats
-        if (playerTwo.contains(5) && hasCorner(playerOne)) {
-            int[] edges = {2, 4, 6, 8};
-            for (int edge : edges) {
-                if (buttons[edge - 1].getText().isEmpty()) {
-                    if (createsMultipleThreats(edge)) return edge;
-                }
-            }
-        }
-        
-        // STRATEGY 8: Take center if available and strategic
-        if (buttons[4].getText().isEmpty()) {
-            // Center is always good if available
-            return 5;
-        }
-        
-        // STRATEGY 9: Opposite corner strategy
-        int oppositeCorner = getOppositeCorner();
-        if (oppositeCorner != -1) return oppositeCorner;
-        
-        // STRATEGY 10: Any empty corner (corners are strong positions)
-        int[] corners = {1, 3, 7, 9};
-        for (int corner : corners) {
-            if (buttons[corner - 1].getText().isEmpty()) return corner;
-        }
-        
-        // STRATEGY 11: Take edges that don't give opponent fork opportunities
-        int[] edges = {2, 4, 6, 8};
-        for (int edge : edges) {
-            if (buttons[edge - 1].getText().isEmpty()) {
-                // Make sure this edge doesn't give opponent a fork
-                if (!givesOpponentFork(edge)) return edge;
-            }
-        }
-        
-        // STRATEGY 12: Fallback - any available move
-        for (int i = 1; i <= 9; i++) {
-            if (buttons[i - 1].getText().isEmpty()) return i;
-        }
-        
-        return 5; // Ultimate fallback
-    }
-    
-    // Check if player has any corner
-    private boolean hasCorner(ArrayList<Integer> player) {
-        int[] corners = {1, 3, 7, 9};
-        for (int corner : corners) {
-            if (player.contains(corner)) return true;
-        }
-        return false;
-    }
-    
-    // Check if a move creates multiple threats
-    private boolean createsMultipleThreats(int move) {
-        ArrayList<Integer> testAI = new ArrayList<>(playerTwo);
-        testAI.add(move);
-        ArrayList<Integer> threats = getWinningMove(testAI);
-        return threats.size() >= 2 && !threats.contains(-1);
-    }
-    
-    // Check if a move gives opponent a fork opportunity
-    private boolean givesOpponentFork(int move) {
-        // Simulate the move
-        ArrayList<Integer> testAI = new ArrayList<>(playerTwo);
-        testAI.add(move);
-        
-        // Check if opponent can create fork after this move
-        for (int i = 1; i <= 9; i++) {
-            if (i != move && buttons[i - 1].getText().isEmpty()) {
-                ArrayList<Integer> testOpponent = new ArrayList<>(playerOne);
-                testOpponent.add(i);
-                if (createFork(testOpponent, testAI) != -1) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
-    // Enhanced fork creation - find moves that create two winning lines
-    private int createFork(ArrayList<Integer> player, ArrayList<Integer> opponent) {
-        for (int i = 1; i <= 9; i++) {
-            if (buttons[i - 1].getText().isEmpty()) {
-                ArrayList<Integer> testPlayer = new ArrayList<>(player);
-                testPlayer.add(i);
-                
-                // Count how many winning moves this creates
-                ArrayList<Integer> winningMoves = getWinningMove(testPlayer);
-                int validWinMoves = 0;
-                
-                for (int winMove : winningMoves) {
-                    if (winMove != -1 && buttons[winMove - 1].getText().isEmpty()) {
-                        // Make sure opponent can't block both
-                        validWinMoves++;
-                    }
-                }
-                
-                // If we can create 2+ winning opportunities, it's a fork
-                if (validWinMoves >= 2) return i;
-            }
-        }
-        return -1;
-    }
-    
-    // Block opponent's fork attempts
-    private int blockOpponentFork(ArrayList<Integer> opponent, ArrayList<Integer> ai) {
-        // Find all opponent moves that would create forks
-        ArrayList<Integer> forkThreats = new ArrayList<>();
-        
-        for (int i = 1; i <= 9; i++) {
-            if (buttons[i - 1].getText().isEmpty()) {
-                ArrayList<Integer> testOpponent = new ArrayList<>(opponent);
-                testOpponent.add(i);
-                
-                ArrayList<Integer> winMoves = getWinningMove(testOpponent);
-                int validWins = 0;
-                for (int winMove : winMoves) {
-                    if (winMove != -1 && buttons[winMove - 1].getText().isEmpty()) {
-                        validWins++;
-                    }
-                }
-                
-                if (validWins >= 2) {
-                    forkThreats.add(i);
-                }
-            }
-        }
-        
-        // If opponent has fork threats, we need to block them
-        if (!forkThreats.isEmpty()) {
-            // Try to block by creating our own threat (forcing opponent to defend)
-            for (int i = 1; i <= 9; i++) {
-                if (buttons[i - 1].getText().isEmpty() && !forkThreats.contains(i)) {
-                    ArrayList<Integer> testAI = new ArrayList<>(ai);
-                    testAI.add(i);
-                    
-                    ArrayList<Integer> ourThreats = getWinningMove(testAI);
-                    if (!ourThreats.isEmpty() && ourThreats.get(0) != -1) {
-                        return i; // This forces opponent to block us instead of forking
-                    }
-                }
-            }
-            
-            // If we can't create counter-threat, directly block the fork
-            return forkThreats.get(0);
+    // Every move goes through here so the match log and JFR record it
+    private boolean playMove(int pos) {
+        int player = engine.isPlayerOneToMove() ? 1 : 2;
+        if (!match.applyMove(pos)) return false;
+        matchLog.move(match, logDifficulty(), pos);
+        GameEvents.Move event = new GameEvents.Move();
+        if (event.shouldCommit()) {
+            event.square = pos;
+            event.player = player;
+            event.difficulty = logDifficulty();
+            event.position = GameEvents.position(engine);
+            if (isVsAI && player == 2) event.computeTime = aiScheduler.lastComputeNanos();
+            event.commit();
         }
-        
-        return -1;
+        return true;
     }
 
-    private int getOppositeCorner() {
-        // If opponent has a corner, take the opposite
-        int[][] opposites = {{1, 9}, {3, 7}, {7, 3}, {9, 1}};
-        
-        for (int[] pair : opposites) {
-            if (playerOne.contains(pair[0]) && buttons[pair[1] - 1].getText().isEmpty()) {
-                return pair[1];
-            }
-        }
-        return -1;
+    private void logMatchStart() {
+        matchLog.matchStart(match, logDifficulty());
     }
 
-    private ArrayList<Integer> getWinningMove(ArrayList<Integer> player) {
-        ArrayList<Integer> moves = new ArrayList<>();
-        int[][] winningCombos = {
-            {1, 2, 3}, {4, 5, 6}, {7, 8, 9},
-            {1, 4, 7}, {2, 5, 8}, {3, 6, 9},
-            {1, 5, 9}, {3, 5, 7}
-        };
-
-        for (int[] combo : winningCombos) {
-            ArrayList<Integer> missing = new ArrayList<>();
-            for (int pos : combo) {
-                if (!player.contains(pos)) {
-                    missing.add(pos);
-                }
-            }
-            if (missing.size() == 1 && buttons[missing.get(0) - 1].getText().isEmpty()) {
-                moves.add(missing.get(0));
-            }
-        }
-        return moves.isEmpty() ? new ArrayList<>(java.util.List.of(-1)) : moves;
+    // 0 marks a two-player match in the log
+    private int logDifficulty() {
+        return isVsAI ? difficulty : 0;
     }
 
-    boolean checkWinner(ArrayList<Integer> playerMoves) {
-        int[][] winningCombos = {
-            {1, 2, 3}, {4, 5, 6}, {7, 8, 9},
-            {1, 4, 7}, {2, 5, 8}, {3, 6, 9},
-            {1, 5, 9}, {3, 5, 7}
-        };
-
-        for (int[] combo : winningCombos) {
-            if (playerMoves.contains(combo[0]) && 
-                playerMoves.contains(combo[1]) && 
-                playerMoves.contains(combo[2])) {
-                return true;
-            }
-        }
-        return false;
+    // Show one grid cell from the engine - the board holds no game state
+    private void renderCell(int pos) {
+        int bit = Board.bit(pos);
+        int mark = (engine.playerOne() & bit) != 0 ? BoardComponent.X
+            : (engine.playerTwo() & bit) != 0 ? BoardComponent.O : BoardComponent.EMPTY;
+        board.setCell(pos - 1, mark);
     }
 
     private void showWinnerCelebration(String winner, boolean isPlayerWin) {
-        SwingUtilities.invokeLater(() -> {
-            String message = isPlayerWin ? 
-                "Congratulations " + winner + "!\nYou won this round!" :
-                winner + " wins!\nBetter luck next time!";
-            
-            // Animated celebration dialog
-            JDialog celebrationDialog = new JDialog(gameFrame, "Round Result", true);
-            celebrationDialog.setLayout(new BorderLayout());
-            celebrationDialog.getContentPane().setBackground(isPlayerWin ? ACCENT_GREEN : ACCENT_BLUE);
-            
-            JLabel celebrationLabel = new JLabel("<html><div style='text-align: center'>" + 
-                message.replace("\n", "<br>") + "</div></html>", SwingConstants.CENTER);
-            celebrationLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
-            celebrationLabel.setForeground(TEXT_WHITE);
-            celebrationLabel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
-            
-            // Celebration text
-            String celebration = isPlayerWin ? "VICTORY!" : "DEFEAT!";
-            JLabel celebrationTextLabel = new JLabel(celebration, SwingConstants.CENTER);
-            celebrationTextLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-            celebrationTextLabel.setForeground(TEXT_WHITE);
-            
-            celebrationDialog.add(celebrationTextLabel, BorderLayout.NORTH);
-            celebrationDialog.add(celebrationLabel, BorderLayout.CENTER);
-            
-            // Auto-close after 2 seconds
-            Timer closeTimer = new Timer(2000, e -> {
-                celebrationDialog.dispose();
-                checkSeriesWinner();
-            });
-            closeTimer.setRepeats(false);
-            closeTimer.start();
-            
-            celebrationDialog.setSize(300, 200);
-            celebrationDialog.setLocationRelativeTo(gameFrame);
-            celebrationDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
-            celebrationDialog.setVisible(true);
-        });
+        String message = isPlayerWin ?
+            "Congratulations " + winner + "!\nYou won this round!" :
+            winner + " wins!\nBetter luck next time!";
+        // Shown over the board for 2 seconds; the event thread stays free
+        overlay.showResult(isPlayerWin ? "VICTORY!" : "DEFEAT!", message,
+            isPlayerWin ? ACCENT_GREEN : ACCENT_BLUE, 2000, this::checkSeriesWinner);
     }
 
     private void showDrawDialog() {
-        String message = "It's a Draw!\nWell played by both sides!";
-        
-        JDialog drawDialog = new JDialog(gameFrame, "Draw", true);
-        drawDialog.setLayout(new BorderLayout());
-        drawDialog.getContentPane().setBackground(ACCENT_PURPLE);
-        
-        JLabel drawLabel = new JLabel("<html><div style='text-align: center'>" + 
-            message.replace("\n", "<br>") + "</div></html>", SwingConstants.CENTER);
-        drawLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        drawLabel.setForeground(TEXT_WHITE);
-        drawLabel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        
-        JLabel drawTextLabel = new JLabel("DRAW", SwingConstants.CENTER);
-        drawTextLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        drawTextLabel.setForeground(TEXT_WHITE);
-        
-        drawDialog.add(drawTextLabel, BorderLayout.NORTH);
-        drawDialog.add(drawLabel, BorderLayout.CENTER);
-        
-        Timer closeTimer = new Timer(1500, e -> {
-            drawDialog.dispose();
-            
-            checkSeriesWinner();
-        });
-        closeTimer.setRepeats(false);
-        closeTimer.start();
-        
-        drawDialog.setSize(250, 150);
-        drawDialog.setLocationRelativeTo(gameFrame);
-        drawDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
-        drawDialog.setVisible(true);
+        overlay.showResult("DRAW", "It's a Draw!\nWell played by both sides!", ACCENT_PURPLE, 1500, this::checkSeriesWinner);
     }
 
     void checkSeriesWinner() {
-        String currentScore = player1Name + " [" + p1Wins + "] - [" + p2Wins + "] " + player2Name;
+        String currentScore = player1Name + " [" + match.p1Wins() + "] - [" + match.p2Wins() + "] " + player2Name;
         scoreLabel.setText("Score: " + currentScore);
 
-        if (p1Wins == roundsToWin || p2Wins == roundsToWin) {
-            String champion = (p1Wins == roundsToWin) ? player1Name : player2Name;
-            boolean isPlayerChampion = p1Wins == roundsToWin;
+        if (match.isOver()) {
+            matchLog.matchEnd(match, logDifficulty());
+            boolean isPlayerChampion = match.champion() == GameEngine.PLAYER_ONE_WINS;
+            String champion = isPlayerChampion ? player1Name : player2Name;
             
             showChampionCelebration(champion, isPlayerChampion, currentScore);
+        } else if (network != null) {
+            // The server starts the next round once both players are ready
+            turnLabel.setText("Waiting for " + (onlineSide == 1 ? player2Name : player1Name) + "...");
+            network.send("READY");
         } else {
             // Continue to next round - Hard mode AI ALWAYS starts
             SwingUtilities.invokeLater(() -> {
@@ -940,124 +667,135 @@ public class XandO {
                 
                 // If AI should start the new round, make it play
                 if (isVsAI && !isPlayerFirst) {
-                    Timer aiDelay = new Timer(800, evt -> {
-                        if (gameInProgress) {
-                            aiMove();
-                        }
-                        ((Timer) evt.getSource()).stop();
-                    });
-                    aiDelay.setRepeats(false);
-                    aiDelay.start();
+                    scheduleAIMove(800);
                 }
             });
         }
     }
 
     private void showChampionCelebration(String champion, boolean isPlayerChampion, String finalScore) {
-        // Championship dialog
-        JDialog championDialog = new JDialog(gameFrame, "CHAMPION!", true);
-        championDialog.setLayout(new BorderLayout());
-        championDialog.getContentPane().setBackground(isPlayerChampion ? ACCENT_GREEN : ACCENT_RED);
-        
-        // Championship message
-        String message = isPlayerChampion ? 
+        String message = isPlayerChampion ?
             champion + " is the CHAMPION!\nOutstanding victory!" :
             champion + " is the CHAMPION!\nImpressive performance!";
-        
-        JPanel contentPanel = new JPanel(new GridLayout(4, 1));
-        contentPanel.setBackground(isPlayerChampion ? ACCENT_GREEN : ACCENT_RED);
-        contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        
-        // Trophy and title
-        JLabel trophyLabel = new JLabel("CHAMPION!", SwingConstants.CENTER);
-        trophyLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
-        trophyLabel.setForeground(TEXT_WHITE);
-        
-        JLabel championLabel = new JLabel("<html><div style='text-align: center'>" + 
-            message.replace("\n", "<br>") + "</div></html>", SwingConstants.CENTER);
-        championLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        championLabel.setForeground(TEXT_WHITE);
-        
-        JLabel scoreLabel = new JLabel("Final Score: " + finalScore, SwingConstants.CENTER);
-        scoreLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        scoreLabel.setForeground(TEXT_WHITE);
-        
-        // Play again button
-        JButton playAgainBtn = createModernButton("Play Again", CARD_WHITE);
-        playAgainBtn.setForeground(isPlayerChampion ? ACCENT_GREEN : ACCENT_RED);
-        playAgainBtn.addActionListener(e -> {
-            championDialog.dispose();
-            p1Wins = 0;
-            p2Wins = 0;
-            // Random start for new match - Hard mode AI ALWAYS starts first
-            if (isVsAI && difficulty == 3) {
-                isPlayerFirst = false; // Hard AI always starts
-            } else {
-                isPlayerFirst = new Random().nextBoolean();
-            }
-            resetBoardOnly();
-            
-            // If AI should start the new match, make it play
-            if (isVsAI && !isPlayerFirst) {
-                Timer aiDelay = new Timer(800, evt -> {
-                    if (gameInProgress) {
-                        aiMove();
-                    }
-                    ((Timer) evt.getSource()).stop();
-                });
-                aiDelay.setRepeats(false);
-                aiDelay.start();
-            }
-        });
-        
-        JButton exitBtn = createModernButton("Exit Game", PRIMARY_DARK);
-        exitBtn.addActionListener(e -> {
-            championDialog.dispose();
-            gameFrame.dispose();
-            System.exit(0);
-        });
-        
-        JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 10, 0));
-        buttonPanel.setBackground(isPlayerChampion ? ACCENT_GREEN : ACCENT_RED);
-        buttonPanel.add(playAgainBtn);
-        buttonPanel.add(exitBtn);
-        
-        contentPanel.add(trophyLabel);
-        contentPanel.add(championLabel);
-        contentPanel.add(scoreLabel);
-        contentPanel.add(buttonPanel);
-        
-        championDialog.add(contentPanel, BorderLayout.CENTER);
-        championDialog.setSize(400, 300);
-        championDialog.setLocationRelativeTo(gameFrame);
-        championDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
-        championDialog.setVisible(true);
+        overlay.showChoice("CHAMPION!", message, "Final Score: " + finalScore,
+            isPlayerChampion ? ACCENT_GREEN : ACCENT_RED, "Play Again", this::playAgain, "Exit Game", () -> {
+                if (network != null) network.close();
+                gameFrame.dispose();
+                System.exit(0);
+            });
     }
 
-    void resetBoardOnly() {
-        for (JButton btn : buttons) {
-            btn.setText("");
-            btn.setEnabled(true);
-            btn.setBackground(CARD_WHITE);
+    private void playAgain() {
+        if (network != null) {
+            // Rematch: the server starts it once both players ask
+            match.newMatch(match.roundsToWin(), true);
+            logMatchStart();
+            scoreLabel.setText("Score: " + player1Name + " [0] - [0] " + player2Name);
+            turnLabel.setText("Waiting for rematch...");
+            network.send("READY");
+            return;
+        }
+        match.newMatch(match.roundsToWin(), true);
+        logMatchStart();
+        // Random start for new match - Hard mode AI ALWAYS starts first
+        if (isVsAI && difficulty == 3) {
+            isPlayerFirst = false; // Hard AI always starts
+        } else {
+            isPlayerFirst = new Random().nextBoolean();
+        }
+        resetBoardOnly();
+
+        // If AI should start the new match, make it play
+        if (isVsAI && !isPlayerFirst) {
+            scheduleAIMove(800);
         }
-        playerOne.clear();
-        playerTwo.clear();
-        flag = 0;
+    }
+
+    void resetBoardOnly() {
+        aiScheduler.cancel();
+        match.nextRound(isPlayerFirst);
+        for (int pos = 1; pos <= 9; pos++) renderCell(pos);
         gameInProgress = true;
         turnLabel.setText("Turn: " + (isPlayerFirst ? player1Name : (isVsAI ? "AI" : player2Name)));
     }
 
+    // Connects, queues for an opponent and waits on the setup screen. The
+    // connect can take up to its 5 s timeout, so it runs on its own thread
+    // and only the outcome comes back to the EDT.
+    private void connectOnline(int roundsToWin, JButton startButton) {
+        String startText = startButton.getText();
+        String name = player1Name;
+        startButton.setEnabled(false);
+        startButton.setText("Connecting...");
+        Thread connector = new Thread(() -> {
+            try {
+                NetworkClient client = NetworkClient.connect(serverAddress, this::onServerMessage);
+                SwingUtilities.invokeLater(() -> {
+                    network = client;
+                    startButton.setText("Waiting for opponent...");
+                    network.send("HELLO " + roundsToWin + " " + name);
+                });
+            } catch (IOException | NumberFormatException e) {
+                SwingUtilities.invokeLater(() -> {
+                    startButton.setEnabled(true);
+                    startButton.setText(startText);
+                    showErrorDialog("Cannot connect to " + serverAddress + ": " + e.getMessage());
+                });
+            }
+        }, "net-connect");
+        connector.setDaemon(true);
+        connector.start();
+    }
+
+    // Runs on the EDT for every line from GameServer
+    private void onServerMessage(String line) {
+        String[] parts = line.split(" ", 4);
+        switch (parts[0]) {
+            case "START":
+                onlineSide = Integer.parseInt(parts[1]);
+                String opponent = parts.length > 3 ? parts[3] : "Opponent";
+                if (onlineSide == 2) {
+                    player2Name = player1Name;
+                    player1Name = opponent;
+                } else {
+                    player2Name = opponent;
+                }
+                match.newMatch(Integer.parseInt(parts[2]), true);
+                logMatchStart();
+                welcomeFrame.dispose();
+                drawGrid();
+                gameInProgress = false;
+                break;
+            case "ROUND":
+                isPlayerFirst = parts[1].equals("1");
+                resetBoardOnly();
+                scoreLabel.setText("Score: " + player1Name + " [" + match.p1Wins() + "] - [" + match.p2Wins() + "] " + player2Name);
+                break;
+            case "MOVE":
+                // Both players' moves arrive here, so it plays like a local two-player game
+                buttonClicked(Integer.parseInt(parts[1]));
+                break;
+            case "LEFT":
+                if (gameFrame == null) return;
+                gameInProgress = false;
+                turnLabel.setText("Opponent left the game");
+                break;
+            case "ERROR":
+                System.err.println("Server: " + line);
+                break;
+            default:
+                break;
+        }
+    }
+
     // Proper resource cleanup using a shutdown hook
     private void addShutdownHook() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             if (animationTimer != null) {
                 animationTimer.stop();
             }
+            // Flush and sync whatever the log writer still holds
+            matchLog.close(1000);
         }));
     }
-
-    {
-        // Instance initializer to set up shutdown hook
-        addShutdownHook();
-    }
 }
@@ -0,0 +1,19 @@
+#!/bin/sh
+# Builds the game into out/xando.jar and records a class-data-sharing archive
+# from a training run that opens every screen once and exits. Starting with
+# the archive maps the already parsed and verified classes instead of
+# loading them from the JDK and the jar one by one.
+#
+#   ./cds.sh
+#   java -XX:SharedArchiveFile=out/xando.jsa -jar out/xando.jar
+#
+# CDS only archives classes from jars, not from class directories. Rerun
+# after changing the code or the JDK; a stale archive is ignored.
+set -e
+cd "$(dirname "$0")"
+rm -rf out/classes
+mkdir -p out/classes
+javac -encoding UTF-8 -d out/classes *.java
+jar --create --file out/xando.jar --main-class XandO -C out/classes .
+java -XX:ArchiveClassesAtExit=out/xando.jsa -jar out/xando.jar --training-run
+echo "Archive written to out/xando.jsa"